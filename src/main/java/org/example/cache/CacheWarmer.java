@@ -0,0 +1,143 @@
+package org.example.cache;
+
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CacheWarmer {
+    private final ViaCepService service;
+    private final Queue<String> pending;
+    private final int total;
+    private final int parallelism;
+    private final RateLimiter rateLimiter;
+    private final CountDownLatch readyLatch;
+    private final CountDownLatch doneLatch;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private ExecutorService executor;
+    private volatile boolean stopped;
+
+    public CacheWarmer(ViaCepService service, Collection<String> ceps, int parallelism,
+                       double requestsPerSecond, double readyFraction) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism deve ser positivo");
+        }
+        if (readyFraction < 0 || readyFraction > 1) {
+            throw new IllegalArgumentException("readyFraction deve estar entre 0 e 1");
+        }
+        this.service = service;
+        this.pending = new ConcurrentLinkedQueue<>(ceps);
+        this.total = ceps.size();
+        this.parallelism = parallelism;
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+        this.readyLatch = new CountDownLatch((int) Math.ceil(readyFraction * total));
+        this.doneLatch = new CountDownLatch(parallelism);
+    }
+
+    // One CEP per line; blank lines and lines starting with '#' are ignored.
+    // The same format is produced by CepCache.saveKeys, so a previous process's snapshot works too.
+    public static List<String> readSource(Path source) throws IOException {
+        List<String> ceps = new ArrayList<>();
+        for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                ceps.add(trimmed);
+            }
+        }
+        return ceps;
+    }
+
+    public synchronized CacheWarmer start() {
+        if (executor != null) {
+            return this;
+        }
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cep-cache-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < parallelism; i++) {
+            executor.execute(this::drain);
+        }
+        executor.shutdown();
+        return this;
+    }
+
+    private void drain() {
+        try {
+            String cep;
+            while (!stopped && !Thread.currentThread().isInterrupted() && (cep = pending.poll()) != null) {
+                rateLimiter.acquire();
+                // only CEPs that actually ended up in the cache count towards readiness, so a pod
+                // whose upstream is down never reports itself as warm
+                try {
+                    ViaCepResponse response = service.consultarCep(cep);
+                    if (response.isErro()) {
+                        failed.incrementAndGet();
+                    } else {
+                        loaded.incrementAndGet();
+                        readyLatch.countDown();
+                    }
+                } catch (InterruptedIOException e) {
+                    // OkHttp reports an interrupted call this way; a read timeout is a plain failure
+                    if (!(e instanceof SocketTimeoutException) || stopped) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    failed.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    if (stopped) {
+                        return;
+                    }
+                    failed.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            doneLatch.countDown();
+        }
+    }
+
+    public boolean isReady() {
+        return readyLatch.getCount() == 0;
+    }
+
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return readyLatch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return doneLatch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        stopped = true;
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    public int getTotal() { return total; }
+    public int getLoaded() { return loaded.get(); }
+    public int getFailed() { return failed.get(); }
+}
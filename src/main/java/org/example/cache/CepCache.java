@@ -0,0 +1,207 @@
+package org.example.cache;
+
+import org.example.model.ViaCepResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Entries are spread over a few independently locked LRU segments: a put on a full segment evicts
+// that segment's least recently used entry in O(1), and hits only contend within one segment.
+public class CepCache {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long ttlNanos;
+
+    public CepCache(Duration ttl, int maxEntries) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL deve ser positivo");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve ser positivo");
+        }
+        this.ttlNanos = ttl.toNanos();
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maxEntries) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // spread the remainder so the capacities add up to exactly maxEntries
+            segments[i] = new Segment(maxEntries / count + (i < maxEntries % count ? 1 : 0));
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    private Segment segmentFor(int key) {
+        // CEP keys are sequential, so scramble them before picking a segment
+        return segments.length == 1 ? segments[0] : segments[(key * 0x9E3779B9) >>> segmentShift];
+    }
+
+    // CEPs have exactly 8 digits, so they fit in an int; anything else is not cacheable.
+    public static int encode(String cleanCep) {
+        if (cleanCep == null || cleanCep.length() != 8) {
+            return -1;
+        }
+        int key = 0;
+        for (int i = 0; i < 8; i++) {
+            char c = cleanCep.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    public static String decode(int key) {
+        return String.format("%08d", key);
+    }
+
+    public ViaCepResponse get(int key) {
+        Entry entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    public Entry getEntry(int key) {
+        if (key < 0) {
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    // Local lookups never block, so the future is already complete; caches backed by remote storage
+    // override this to finish the lookup off the caller's thread.
+    public CompletableFuture<Entry> getEntryAsync(int key) {
+        return CompletableFuture.completedFuture(getEntry(key));
+    }
+
+    public void put(int key, ViaCepResponse value) {
+        put(key, value, null, null, 0);
+    }
+
+    public void put(int key, ViaCepResponse value, String etag, String lastModified, long bodyBytes) {
+        if (key < 0 || value == null) {
+            return;
+        }
+        Entry entry = new Entry(value, System.nanoTime() + ttlNanos, etag, lastModified, bodyBytes);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    public void invalidate(int key) {
+        if (key < 0) {
+            return;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public boolean contains(int key) {
+        return get(key) != null;
+    }
+
+    public List<Integer> keys() {
+        List<Integer> keys = new ArrayList<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                keys.addAll(segment.keySet());
+            }
+        }
+        return keys;
+    }
+
+    public void saveKeys(Path target) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Integer key : keys()) {
+            lines.add(decode(key));
+        }
+        Files.write(target, lines, StandardCharsets.UTF_8);
+    }
+
+    // CepCache.Entry is spelled out because a bare Entry here would name LinkedHashMap's own entry type
+    private static class Segment extends LinkedHashMap<Integer, CepCache.Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CepCache.Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    public static class Entry {
+        private final ViaCepResponse value;
+        private final long expiresAtNanos;
+        private final String etag;
+        private final String lastModified;
+        private final long bodyBytes;
+
+        Entry(ViaCepResponse value, long expiresAtNanos, String etag, String lastModified, long bodyBytes) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyBytes = bodyBytes;
+        }
+
+        public ViaCepResponse getValue() { return value; }
+        public long getExpiresAtNanos() { return expiresAtNanos; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public long getBodyBytes() { return bodyBytes; }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        public boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
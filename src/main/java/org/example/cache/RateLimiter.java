@@ -0,0 +1,39 @@
+package org.example.cache;
+
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeSlot;
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond deve ser positivo");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.nextFreeSlot = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    public boolean tryAcquire() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now - nextFreeSlot < 0) {
+                return false;
+            }
+            nextFreeSlot = now + intervalNanos;
+            return true;
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextFreeSlot);
+        nextFreeSlot = slot + intervalNanos;
+        return slot - now;
+    }
+}
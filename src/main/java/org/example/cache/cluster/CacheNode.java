@@ -0,0 +1,247 @@
+package org.example.cache.cluster;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The store is only touched by the selector thread, so a plain access-ordered LinkedHashMap gives
+// LRU eviction at maxEntries without locking; expired entries are swept periodically from the loop.
+public class CacheNode implements Closeable {
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final LinkedHashMap<Integer, StoredValue> store;
+    private final long ttlNanos;
+    private volatile int size;
+    private long nextSweepNanos;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    public CacheNode(InetSocketAddress bindAddress, Duration ttl) throws IOException {
+        this(bindAddress, ttl, 100_000);
+    }
+
+    public CacheNode(InetSocketAddress bindAddress, Duration ttl, int maxEntries) throws IOException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries deve ser positivo");
+        }
+        this.store = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, StoredValue> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.ttlNanos = ttl.toNanos();
+        this.nextSweepNanos = System.nanoTime() + SWEEP_INTERVAL_MILLIS * 1_000_000;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(bindAddress);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.loop = new Thread(this::run, "cep-cache-node-" + getAddress().getPort());
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Nó de cache fechado", e);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select(SWEEP_INTERVAL_MILLIS);
+                sweepIfDue();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush(key);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        key.cancel();
+                        closeQuietly(key.channel());
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    continue;
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        if (now - nextSweepNanos < 0) {
+            return;
+        }
+        store.values().removeIf(value -> now - value.expiresAtNanos >= 0);
+        size = store.size();
+        nextSweepNanos = now + SWEEP_INTERVAL_MILLIS * 1_000_000;
+    }
+
+    private byte[] get(int key) {
+        StoredValue value = store.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (System.nanoTime() - value.expiresAtNanos >= 0) {
+            store.remove(key);
+            size = store.size();
+            return null;
+        }
+        return value.data;
+    }
+
+    private void put(int key, byte[] data) {
+        store.put(key, new StoredValue(data, System.nanoTime() + ttlNanos));
+        size = store.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        closeQuietly(selector);
+        closeQuietly(server);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // already closing
+        }
+    }
+
+    private static class StoredValue {
+        final byte[] data;
+        final long expiresAtNanos;
+
+        StoredValue(byte[] data, long expiresAtNanos) {
+            this.data = data;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private class Connection {
+        private final ByteBuffer in = ByteBuffer.allocate(CacheProtocol.REQUEST_HEADER_SIZE + CacheProtocol.MAX_PAYLOAD);
+        private ByteBuffer out = ByteBuffer.allocate(4096);
+
+        void read(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            if (channel.read(in) < 0) {
+                key.cancel();
+                channel.close();
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= CacheProtocol.REQUEST_HEADER_SIZE) {
+                in.mark();
+                byte op = in.get();
+                int cepKey = in.getInt();
+                int length = in.getInt();
+                if (length < 0 || length > CacheProtocol.MAX_PAYLOAD) {
+                    throw new IOException("Frame inválido: " + length + " bytes");
+                }
+                if (in.remaining() < length) {
+                    in.reset();
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.get(payload);
+                handle(op, cepKey, payload);
+            }
+            in.compact();
+            flush(key);
+        }
+
+        private void handle(byte op, int cepKey, byte[] payload) {
+            if (op == CacheProtocol.OP_GET) {
+                byte[] data = get(cepKey);
+                if (data == null) {
+                    respond(CacheProtocol.STATUS_MISS, new byte[0]);
+                } else {
+                    respond(CacheProtocol.STATUS_OK, data);
+                }
+            } else if (op == CacheProtocol.OP_PUT) {
+                put(cepKey, payload);
+                respond(CacheProtocol.STATUS_OK, new byte[0]);
+            } else {
+                respond(CacheProtocol.STATUS_ERROR, new byte[0]);
+            }
+        }
+
+        private void respond(byte status, byte[] payload) {
+            int needed = CacheProtocol.RESPONSE_HEADER_SIZE + payload.length;
+            if (out.remaining() < needed) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + needed));
+                out.flip();
+                larger.put(out);
+                out = larger;
+            }
+            out.put(status).putInt(payload.length).put(payload);
+        }
+
+        void flush(SelectionKey key) throws IOException {
+            out.flip();
+            ((SocketChannel) key.channel()).write(out);
+            boolean pending = out.hasRemaining();
+            out.compact();
+            key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+}
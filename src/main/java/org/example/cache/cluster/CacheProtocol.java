@@ -0,0 +1,18 @@
+package org.example.cache.cluster;
+
+// Request frame:  [op:1][key:4][length:4][payload:length]
+// Response frame: [status:1][length:4][payload:length]
+final class CacheProtocol {
+    static final byte OP_GET = 1;
+    static final byte OP_PUT = 2;
+
+    static final byte STATUS_MISS = 0;
+    static final byte STATUS_OK = 1;
+    static final byte STATUS_ERROR = 2;
+
+    static final int REQUEST_HEADER_SIZE = 9;
+    static final int RESPONSE_HEADER_SIZE = 5;
+    static final int MAX_PAYLOAD = 64 * 1024;
+
+    private CacheProtocol() {}
+}
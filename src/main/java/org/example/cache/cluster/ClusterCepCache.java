@@ -0,0 +1,169 @@
+package org.example.cache.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local entries act as a near cache with a short TTL; misses go to the peer that owns the key.
+// An unreachable peer is treated as a miss so lookups fall back to the upstream API, and
+// writes to the owner happen in the background so they never add latency to a lookup.
+// getEntryAsync runs the peer round trip on a reader pool so async callers are never blocked by it.
+// Validators travel with the value so a pod that got the entry from a peer can still revalidate it.
+public class ClusterCepCache extends CepCache implements Closeable {
+    private final ConsistentHashRing<PeerClient> ring;
+    private final List<PeerClient> peers = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong remoteHits = new AtomicLong();
+    private final AtomicLong remoteMisses = new AtomicLong();
+    private final AtomicLong remoteErrors = new AtomicLong();
+    private final AtomicLong droppedWrites = new AtomicLong();
+    private final ThreadPoolExecutor writer;
+    private final ExecutorService reader;
+
+    public ClusterCepCache(List<InetSocketAddress> peerAddresses, Duration nearTtl, int nearMaxEntries) {
+        this(peerAddresses, nearTtl, nearMaxEntries, Duration.ofMillis(200), 64, 4);
+    }
+
+    public ClusterCepCache(List<InetSocketAddress> peerAddresses, Duration nearTtl, int nearMaxEntries,
+                           Duration peerTimeout, int virtualNodes, int connectionsPerPeer) {
+        super(nearTtl, nearMaxEntries);
+        for (InetSocketAddress address : peerAddresses) {
+            peers.add(new PeerClient(address, peerTimeout, connectionsPerPeer));
+        }
+        this.ring = new ConsistentHashRing<>(peers, virtualNodes);
+        // a full queue means the peers can't keep up; dropping the write only costs a future miss
+        this.writer = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1024),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cep-cluster-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedWrites.incrementAndGet());
+        // one reader per pooled connection; more would only queue inside PeerClient
+        this.reader = Executors.newFixedThreadPool(Math.max(1, peers.size() * connectionsPerPeer), runnable -> {
+            Thread thread = new Thread(runnable, "cep-cluster-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ViaCepResponse get(int key) {
+        Entry entry = getEntry(key);
+        return entry != null && !entry.isExpired(System.nanoTime()) ? entry.getValue() : null;
+    }
+
+    @Override
+    public Entry getEntry(int key) {
+        Entry near = super.getEntry(key);
+        if (key < 0 || (near != null && !near.isExpired(System.nanoTime()))) {
+            return near;
+        }
+        return fetchRemote(key) ? super.getEntry(key) : near;
+    }
+
+    @Override
+    public CompletableFuture<Entry> getEntryAsync(int key) {
+        Entry near = super.getEntry(key);
+        if (key < 0 || (near != null && !near.isExpired(System.nanoTime()))) {
+            return CompletableFuture.completedFuture(near);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> fetchRemote(key) ? super.getEntry(key) : near, reader);
+        } catch (RejectedExecutionException e) {
+            // closed cache: behave like an unreachable peer
+            return CompletableFuture.completedFuture(near);
+        }
+    }
+
+    @Override
+    public void put(int key, ViaCepResponse value, String etag, String lastModified, long bodyBytes) {
+        super.put(key, value, etag, lastModified, bodyBytes);
+        if (key < 0 || value == null) {
+            return;
+        }
+        PeerClient owner = ring.nodeFor(key);
+        writer.execute(() -> {
+            try {
+                owner.put(key, encodePayload(value, etag, lastModified, bodyBytes));
+            } catch (IOException e) {
+                remoteErrors.incrementAndGet();
+            }
+        });
+    }
+
+    private boolean fetchRemote(int key) {
+        try {
+            byte[] data = ring.nodeFor(key).get(key);
+            if (data == null) {
+                remoteMisses.incrementAndGet();
+                return false;
+            }
+            ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+            DataInputStream in = new DataInputStream(bytes);
+            String etag = in.readBoolean() ? in.readUTF() : null;
+            String lastModified = in.readBoolean() ? in.readUTF() : null;
+            long bodyBytes = in.readLong();
+            ViaCepResponse value = objectMapper.readValue(bytes, ViaCepResponse.class);
+            remoteHits.incrementAndGet();
+            super.put(key, value, etag, lastModified, bodyBytes);
+            return true;
+        } catch (IOException e) {
+            remoteErrors.incrementAndGet();
+            return false;
+        }
+    }
+
+    private byte[] encodePayload(ViaCepResponse value, String etag, String lastModified, long bodyBytes)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        writeOptional(out, etag);
+        writeOptional(out, lastModified);
+        out.writeLong(bodyBytes);
+        out.flush();
+        objectMapper.writeValue(buffer, value);
+        return buffer.toByteArray();
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public long getRemoteHits() { return remoteHits.get(); }
+    public long getRemoteMisses() { return remoteMisses.get(); }
+    public long getRemoteErrors() { return remoteErrors.get(); }
+    public long getDroppedWrites() { return droppedWrites.get(); }
+
+    @Override
+    public void close() {
+        writer.shutdownNow();
+        // queued lookups still run and fail fast against the closed peers, so no caller is left waiting
+        reader.shutdown();
+        for (PeerClient peer : peers) {
+            peer.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.cache.cluster;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ConsistentHashRing<T> {
+    private final TreeMap<Integer, T> ring = new TreeMap<>();
+    private final int virtualNodes;
+
+    public ConsistentHashRing(Collection<T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de pelo menos um nó");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes deve ser positivo");
+        }
+        this.virtualNodes = virtualNodes;
+        for (T node : nodes) {
+            add(node);
+        }
+    }
+
+    private void add(T node) {
+        String name = node.toString();
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.put(mix((name + "#" + i).hashCode()), node);
+        }
+    }
+
+    public T nodeFor(int key) {
+        Map.Entry<Integer, T> entry = ring.ceilingEntry(mix(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Murmur3 finalizer: CEP keys are dense and sequential, so they must be scrambled before
+    // being placed on the ring or neighbouring CEPs would all land on the same node.
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.cache.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Calls borrow a connection from a small idle pool (or open a new one), so concurrent lookups
+// never queue behind each other on one socket. After a failure the peer is skipped for a
+// backoff period that doubles on each consecutive failure; the first call after it expires
+// probes the peer again.
+class PeerClient implements Closeable {
+    private static final long MIN_BACKOFF_NANOS = Duration.ofMillis(250).toNanos();
+    private static final long MAX_BACKOFF_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private final BlockingQueue<Connection> idle;
+    private long backoffNanos;
+    private long openUntilNanos;
+    private boolean probing;
+    private volatile boolean closed;
+
+    PeerClient(InetSocketAddress address, Duration timeout, int maxIdleConnections) {
+        this.address = address;
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.idle = new ArrayBlockingQueue<>(maxIdleConnections);
+    }
+
+    byte[] get(int key) throws IOException {
+        return call(CacheProtocol.OP_GET, key, new byte[0]);
+    }
+
+    void put(int key, byte[] data) throws IOException {
+        call(CacheProtocol.OP_PUT, key, data);
+    }
+
+    private byte[] call(byte op, int key, byte[] payload) throws IOException {
+        acquirePermit();
+        Connection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection();
+            }
+            byte[] result = connection.call(op, key, payload);
+            recordSuccess();
+            if (closed || !idle.offer(connection)) {
+                connection.close();
+            }
+            return result;
+        } catch (IOException e) {
+            // the stream may be out of sync, never reuse this connection
+            if (connection != null) {
+                connection.close();
+            }
+            recordFailure();
+            throw e;
+        }
+    }
+
+    private synchronized void acquirePermit() throws IOException {
+        if (closed) {
+            throw new IOException("Peer " + this + " fechado");
+        }
+        if (backoffNanos == 0) {
+            return;
+        }
+        if (System.nanoTime() - openUntilNanos < 0 || probing) {
+            throw new IOException("Peer " + this + " em backoff após falha");
+        }
+        probing = true;
+    }
+
+    private synchronized void recordSuccess() {
+        backoffNanos = 0;
+        probing = false;
+    }
+
+    private synchronized void recordFailure() {
+        probing = false;
+        if (backoffNanos != 0 && System.nanoTime() - openUntilNanos < 0) {
+            // concurrent calls failing from the same outage don't lengthen the backoff
+            return;
+        }
+        backoffNanos = backoffNanos == 0 ? MIN_BACKOFF_NANOS : Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+        openUntilNanos = System.nanoTime() + backoffNanos;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return address.getHostString() + ":" + address.getPort();
+    }
+
+    private class Connection {
+        private final Socket socket;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+
+        Connection() throws IOException {
+            socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                socket.connect(address, timeoutMillis);
+                input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        byte[] call(byte op, int key, byte[] payload) throws IOException {
+            output.writeByte(op);
+            output.writeInt(key);
+            output.writeInt(payload.length);
+            output.write(payload);
+            output.flush();
+
+            byte status = input.readByte();
+            int length = input.readInt();
+            if (length < 0 || length > CacheProtocol.MAX_PAYLOAD) {
+                throw new IOException("Frame inválido: " + length + " bytes");
+            }
+            byte[] data = new byte[length];
+            input.readFully(data);
+            if (status == CacheProtocol.STATUS_ERROR) {
+                throw new IOException("Peer " + address + " rejeitou a operação " + op);
+            }
+            return status == CacheProtocol.STATUS_OK ? data : null;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+}
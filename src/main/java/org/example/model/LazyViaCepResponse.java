@@ -0,0 +1,365 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Indexes the body in a single scan and keeps only the UTF-8 bytes of the known values, packed into
+// one array behind their end offsets; keys, whitespace and unknown fields are dropped. Strings are
+// built on every getter call and never retained, so a cached entry stays at the size of its values.
+// A setter stores its value in the inherited field and takes precedence over the packed bytes.
+public class LazyViaCepResponse extends ViaCepResponse {
+    private static final int CEP = 0;
+    private static final int LOGRADOURO = 1;
+    private static final int COMPLEMENTO = 2;
+    private static final int BAIRRO = 3;
+    private static final int LOCALIDADE = 4;
+    private static final int UF = 5;
+    private static final int IBGE = 6;
+    private static final int GIA = 7;
+    private static final int DDD = 8;
+    private static final int SIAFI = 9;
+    private static final int ERRO = 10;
+
+    private static final byte[][] FIELD_NAMES = {
+        ascii("cep"), ascii("logradouro"), ascii("complemento"), ascii("bairro"), ascii("localidade"),
+        ascii("uf"), ascii("ibge"), ascii("gia"), ascii("ddd"), ascii("siafi"), ascii("erro")
+    };
+    private static final int STRING_FIELDS = 10;
+    // each field's end offset is an unsigned 16-bit value at the head of the packed array
+    private static final int HEADER_BYTES = STRING_FIELDS * 2;
+    private static final int MAX_VALUE_BYTES = 0xFFFF;
+
+    private final byte[] packed;
+    // one bit per field: present holds a string or number value, overridden was replaced by a setter
+    private final int present;
+    private int overridden;
+
+    private LazyViaCepResponse(byte[] packed, int present) {
+        this.packed = packed;
+        this.present = present;
+    }
+
+    public static LazyViaCepResponse parse(byte[] json) throws IOException {
+        Scanner scanner = new Scanner(json);
+        scanner.index();
+        LazyViaCepResponse response = new LazyViaCepResponse(scanner.pack(), scanner.present);
+        response.setErro(scanner.erro);
+        return response;
+    }
+
+    private String value(int field) {
+        if ((present & (1 << field)) == 0) {
+            return null;
+        }
+        int start = field == 0 ? 0 : end(field - 1);
+        return new String(packed, HEADER_BYTES + start, end(field) - start, StandardCharsets.UTF_8);
+    }
+
+    private int end(int field) {
+        return (packed[2 * field] & 0xFF) << 8 | (packed[2 * field + 1] & 0xFF);
+    }
+
+    private boolean isOverridden(int field) {
+        return (overridden & (1 << field)) != 0;
+    }
+
+    private void override(int field) {
+        overridden |= 1 << field;
+    }
+
+    @Override public String getCep() { return isOverridden(CEP) ? super.getCep() : value(CEP); }
+    @Override public void setCep(String cep) { override(CEP); super.setCep(cep); }
+
+    @Override public String getLogradouro() { return isOverridden(LOGRADOURO) ? super.getLogradouro() : value(LOGRADOURO); }
+    @Override public void setLogradouro(String logradouro) { override(LOGRADOURO); super.setLogradouro(logradouro); }
+
+    @Override public String getComplemento() { return isOverridden(COMPLEMENTO) ? super.getComplemento() : value(COMPLEMENTO); }
+    @Override public void setComplemento(String complemento) { override(COMPLEMENTO); super.setComplemento(complemento); }
+
+    @Override public String getBairro() { return isOverridden(BAIRRO) ? super.getBairro() : value(BAIRRO); }
+    @Override public void setBairro(String bairro) { override(BAIRRO); super.setBairro(bairro); }
+
+    @Override public String getLocalidade() { return isOverridden(LOCALIDADE) ? super.getLocalidade() : value(LOCALIDADE); }
+    @Override public void setLocalidade(String localidade) { override(LOCALIDADE); super.setLocalidade(localidade); }
+
+    @Override public String getUf() { return isOverridden(UF) ? super.getUf() : value(UF); }
+    @Override public void setUf(String uf) { override(UF); super.setUf(uf); }
+
+    @Override public String getIbge() { return isOverridden(IBGE) ? super.getIbge() : value(IBGE); }
+    @Override public void setIbge(String ibge) { override(IBGE); super.setIbge(ibge); }
+
+    @Override public String getGia() { return isOverridden(GIA) ? super.getGia() : value(GIA); }
+    @Override public void setGia(String gia) { override(GIA); super.setGia(gia); }
+
+    @Override public String getDdd() { return isOverridden(DDD) ? super.getDdd() : value(DDD); }
+    @Override public void setDdd(String ddd) { override(DDD); super.setDdd(ddd); }
+
+    @Override public String getSiafi() { return isOverridden(SIAFI) ? super.getSiafi() : value(SIAFI); }
+    @Override public void setSiafi(String siafi) { override(SIAFI); super.setSiafi(siafi); }
+
+    @Override
+    public String toString() {
+        return "ViaCepResponse{" +
+                "cep='" + getCep() + '\'' +
+                ", logradouro='" + getLogradouro() + '\'' +
+                ", bairro='" + getBairro() + '\'' +
+                ", localidade='" + getLocalidade() + '\'' +
+                ", uf='" + getUf() + '\'' +
+                ", erro=" + isErro() +
+                '}';
+    }
+
+    private static byte[] ascii(String name) {
+        return name.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Only lives for the duration of parse, so its bookkeeping arrays are never retained.
+    private static final class Scanner {
+        private final byte[] raw;
+        // start/end of each value; start < 0 means absent or JSON null
+        private final int[] starts = new int[STRING_FIELDS];
+        private final int[] ends = new int[STRING_FIELDS];
+        private int escaped;
+        private int present;
+        private boolean erro;
+
+        Scanner(byte[] raw) {
+            this.raw = raw;
+            Arrays.fill(starts, -1);
+        }
+
+        void index() throws IOException {
+            int pos = skipWhitespace(0);
+            pos = expect(pos, '{');
+            pos = skipWhitespace(pos);
+            if (pos < raw.length && raw[pos] == '}') {
+                return;
+            }
+            while (true) {
+                pos = expect(skipWhitespace(pos), '"');
+                int keyStart = pos;
+                pos = endOfString(pos);
+                int field = fieldIndex(keyStart, pos);
+                pos = skipWhitespace(expect(skipWhitespace(pos + 1), ':'));
+
+                if (pos >= raw.length) {
+                    throw malformed(pos);
+                }
+                if (raw[pos] == '"') {
+                    int valueStart = pos + 1;
+                    int valueEnd = endOfString(valueStart);
+                    recordString(field, valueStart, valueEnd);
+                    pos = valueEnd + 1;
+                } else if (raw[pos] == '{' || raw[pos] == '[') {
+                    pos = skipNested(pos);
+                } else {
+                    int literalStart = pos;
+                    while (pos < raw.length && raw[pos] != ',' && raw[pos] != '}' && !isWhitespace(raw[pos])) {
+                        pos++;
+                    }
+                    recordLiteral(field, literalStart, pos);
+                }
+
+                pos = skipWhitespace(pos);
+                if (pos >= raw.length) {
+                    throw malformed(pos);
+                }
+                if (raw[pos] == '}') {
+                    return;
+                }
+                pos = expect(pos, ',');
+            }
+        }
+
+        private void recordString(int field, int start, int end) {
+            if (field == ERRO) {
+                erro = end - start == 4 && regionEquals(start, "true");
+            } else if (field >= 0) {
+                record(field, start, end);
+                if (hasEscape(start, end)) {
+                    escaped |= 1 << field;
+                } else {
+                    escaped &= ~(1 << field);
+                }
+            }
+        }
+
+        private void recordLiteral(int field, int start, int end) {
+            if (field == ERRO) {
+                erro = end - start == 4 && regionEquals(start, "true");
+            } else if (field >= 0) {
+                if (end - start == 4 && regionEquals(start, "null")) {
+                    starts[field] = -1;
+                    present &= ~(1 << field);
+                } else {
+                    // numbers are kept as their textual form, like Jackson does when binding to String
+                    record(field, start, end);
+                    escaped &= ~(1 << field);
+                }
+            }
+        }
+
+        private void record(int field, int start, int end) {
+            starts[field] = start;
+            ends[field] = end;
+            present |= 1 << field;
+        }
+
+        // Escaped values are rare, so they are decoded once here and stored unescaped.
+        byte[] pack() throws IOException {
+            byte[][] unescaped = new byte[STRING_FIELDS][];
+            int total = 0;
+            for (int field = 0; field < STRING_FIELDS; field++) {
+                if (starts[field] < 0) {
+                    continue;
+                }
+                if ((escaped & (1 << field)) != 0) {
+                    unescaped[field] = unescape(starts[field], ends[field]).getBytes(StandardCharsets.UTF_8);
+                    total += unescaped[field].length;
+                } else {
+                    total += ends[field] - starts[field];
+                }
+            }
+            if (total > MAX_VALUE_BYTES) {
+                throw new IOException("Resposta grande demais: " + total + " bytes de valores");
+            }
+
+            byte[] packed = new byte[HEADER_BYTES + total];
+            int offset = 0;
+            for (int field = 0; field < STRING_FIELDS; field++) {
+                if (unescaped[field] != null) {
+                    System.arraycopy(unescaped[field], 0, packed, HEADER_BYTES + offset, unescaped[field].length);
+                    offset += unescaped[field].length;
+                } else if (starts[field] >= 0) {
+                    int length = ends[field] - starts[field];
+                    System.arraycopy(raw, starts[field], packed, HEADER_BYTES + offset, length);
+                    offset += length;
+                }
+                packed[2 * field] = (byte) (offset >>> 8);
+                packed[2 * field + 1] = (byte) offset;
+            }
+            return packed;
+        }
+
+        private int fieldIndex(int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < FIELD_NAMES.length; i++) {
+                byte[] name = FIELD_NAMES[i];
+                if (name.length != length) {
+                    continue;
+                }
+                int j = 0;
+                while (j < length && raw[start + j] == name[j]) {
+                    j++;
+                }
+                if (j == length) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int endOfString(int pos) throws IOException {
+            while (pos < raw.length) {
+                byte b = raw[pos];
+                if (b == '\\') {
+                    pos += 2;
+                } else if (b == '"') {
+                    return pos;
+                } else {
+                    pos++;
+                }
+            }
+            throw malformed(pos);
+        }
+
+        private int skipNested(int pos) throws IOException {
+            int depth = 0;
+            while (pos < raw.length) {
+                byte b = raw[pos];
+                if (b == '"') {
+                    pos = endOfString(pos + 1);
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return pos + 1;
+                    }
+                }
+                pos++;
+            }
+            throw malformed(pos);
+        }
+
+        private boolean hasEscape(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (raw[i] == '\\') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String unescape(int start, int end) {
+            StringBuilder out = new StringBuilder(end - start);
+            int runStart = start;
+            int i = start;
+            while (i < end) {
+                if (raw[i] != '\\') {
+                    i++;
+                    continue;
+                }
+                out.append(new String(raw, runStart, i - runStart, StandardCharsets.UTF_8));
+                char c = (char) raw[i + 1];
+                switch (c) {
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'n': out.append('\n'); break;
+                    case 'r': out.append('\r'); break;
+                    case 't': out.append('\t'); break;
+                    case 'u':
+                        out.append((char) Integer.parseInt(new String(raw, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                        i += 4;
+                        break;
+                    default: out.append(c); break;
+                }
+                i += 2;
+                runStart = i;
+            }
+            out.append(new String(raw, runStart, end - runStart, StandardCharsets.UTF_8));
+            return out.toString();
+        }
+
+        private boolean regionEquals(int start, String literal) {
+            for (int i = 0; i < literal.length(); i++) {
+                if (raw[start + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int skipWhitespace(int pos) {
+            while (pos < raw.length && isWhitespace(raw[pos])) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private int expect(int pos, char c) throws IOException {
+            if (pos >= raw.length || raw[pos] != c) {
+                throw malformed(pos);
+            }
+            return pos + 1;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+        }
+
+        private static IOException malformed(int pos) {
+            return new IOException("JSON inválido na posição " + pos);
+        }
+    }
+}
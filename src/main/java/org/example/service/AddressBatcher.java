@@ -0,0 +1,226 @@
+package org.example.service;
+
+import org.example.model.ViaCepResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Collects address queries for a short window and resolves them per (uf, cidade): identical streets
+// share one request. Remaining requests run concurrently over the service's shared OkHttp client,
+// which multiplexes them on a single connection when the upstream speaks HTTP/2.
+// With setFilterBroaderResults(true), a street that contains another street of the same group is
+// answered by filtering that broader result instead. The filter is a plain substring match on the
+// accent-stripped, lower-cased name, so it only agrees with the upstream while the upstream search
+// is itself a substring search; abbreviations ("Av." vs "Avenida") or reordered words will differ.
+public class AddressBatcher implements AutoCloseable {
+    // ViaCEP truncates address searches at 50 results, so a full page can't be filtered safely.
+    private static final int MAX_RESULTS = 50;
+    private static final int MIN_STREET_LENGTH = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+
+    private final ViaCepService service;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService fetchExecutor;
+    private List<PendingQuery> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private volatile boolean filterBroaderResults;
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    public AddressBatcher(ViaCepService service, Duration window, int maxParallelFetches) {
+        if (maxParallelFetches <= 0) {
+            throw new IllegalArgumentException("maxParallelFetches deve ser positivo");
+        }
+        this.service = service;
+        this.windowMillis = window.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "cep-address-batcher"));
+        this.fetchExecutor = Executors.newFixedThreadPool(maxParallelFetches, runnable -> daemon(runnable, "cep-address-fetch"));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public CompletableFuture<ViaCepResponse[]> consultarEndereco(String uf, String cidade, String logradouro) {
+        PendingQuery query = new PendingQuery(uf, cidade, logradouro);
+        queries.incrementAndGet();
+        synchronized (this) {
+            pending.add(query);
+            if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return query.result;
+    }
+
+    public void flush() {
+        List<PendingQuery> batch;
+        synchronized (this) {
+            // a manual flush must not leave the old timer behind to cut the next window short
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        Map<String, Map<String, List<PendingQuery>>> groups = new LinkedHashMap<>();
+        for (PendingQuery query : batch) {
+            groups.computeIfAbsent(query.groupKey(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(query.normalizedStreet, key -> new ArrayList<>())
+                    .add(query);
+        }
+        for (Map<String, List<PendingQuery>> streets : groups.values()) {
+            resolveGroup(streets);
+        }
+    }
+
+    private void resolveGroup(Map<String, List<PendingQuery>> streets) {
+        List<String> ordered = new ArrayList<>(streets.keySet());
+        ordered.sort(Comparator.comparingInt(String::length));
+
+        Map<String, CompletableFuture<ViaCepResponse[]>> resolved = new LinkedHashMap<>();
+        for (String street : ordered) {
+            PendingQuery first = streets.get(street).get(0);
+            String root = filterBroaderResults ? broaderStreet(street, resolved.keySet()) : null;
+            CompletableFuture<ViaCepResponse[]> future;
+            if (root == null) {
+                future = fetch(first);
+            } else {
+                future = resolved.get(root).handle((results, error) -> {
+                    if (error != null || results.length >= MAX_RESULTS) {
+                        return fetch(first);
+                    }
+                    filtered.incrementAndGet();
+                    return CompletableFuture.completedFuture(filter(results, street));
+                }).thenCompose(next -> next);
+            }
+            resolved.put(street, future);
+
+            List<PendingQuery> waiting = streets.get(street);
+            deduplicated.addAndGet(waiting.size() - 1);
+            for (PendingQuery query : waiting) {
+                future.whenComplete((results, error) -> {
+                    if (error != null) {
+                        query.result.completeExceptionally(unwrap(error));
+                    } else {
+                        query.result.complete(results.clone());
+                    }
+                });
+            }
+        }
+    }
+
+    private static String broaderStreet(String street, Iterable<String> candidates) {
+        if (street.length() < MIN_STREET_LENGTH) {
+            return null;
+        }
+        for (String candidate : candidates) {
+            if (candidate.length() >= MIN_STREET_LENGTH && !candidate.equals(street) && street.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<ViaCepResponse[]> fetch(PendingQuery query) {
+        fetches.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.consultarEndereco(query.uf, query.cidade, query.logradouro);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, fetchExecutor);
+    }
+
+    private static ViaCepResponse[] filter(ViaCepResponse[] results, String normalizedStreet) {
+        List<ViaCepResponse> matches = new ArrayList<>();
+        for (ViaCepResponse response : results) {
+            if (response.getLogradouro() != null && normalize(response.getLogradouro()).contains(normalizedStreet)) {
+                matches.add(response);
+            }
+        }
+        return matches.toArray(new ViaCepResponse[0]);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof UncheckedIOException) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void setFilterBroaderResults(boolean filterBroaderResults) {
+        this.filterBroaderResults = filterBroaderResults;
+    }
+
+    public long getQueryCount() { return queries.get(); }
+    public long getFetchCount() { return fetches.get(); }
+    public long getFilteredCount() { return filtered.get(); }
+    public long getDeduplicatedCount() { return deduplicated.get(); }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdownNow();
+        fetchExecutor.shutdown();
+    }
+
+    private static class PendingQuery {
+        final String uf;
+        final String cidade;
+        final String logradouro;
+        final String normalizedStreet;
+        final CompletableFuture<ViaCepResponse[]> result = new CompletableFuture<>();
+
+        PendingQuery(String uf, String cidade, String logradouro) {
+            this.uf = uf;
+            this.cidade = cidade;
+            this.logradouro = logradouro;
+            this.normalizedStreet = normalize(logradouro);
+        }
+
+        // Grouping only merges spellings that map to the same request URL.
+        String groupKey() {
+            return uf + '/' + cidade;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.service;
+
+import org.example.model.ViaCepResponse;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Streams CEPs from an upstream publisher through consultarCepAsync to a single subscriber.
+// A CEP is only requested from upstream once the subscriber has demand for its result and
+// fewer than maxInFlight lookups are running, so results can be emitted as soon as they
+// complete (in completion order, not input order). Cancelling the subscription cancels the
+// upstream and every in-flight OkHttp call.
+public class CepLookupProcessor implements Flow.Processor<String, ViaCepResponse> {
+    private final ViaCepService service;
+    private final int maxInFlight;
+
+    private final Queue<ViaCepResponse> ready = new ConcurrentLinkedQueue<>();
+    private final Set<CompletableFuture<ViaCepResponse>> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super ViaCepResponse> downstream;
+
+    // guarded by this
+    private long demand;
+    private int outstanding;
+    private int inFlight;
+
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    public CepLookupProcessor(ViaCepService service, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight deve ser positivo");
+        }
+        this.service = service;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ViaCepResponse> subscriber) {
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override public void request(long n) {}
+                    @Override public void cancel() {}
+                });
+                subscriber.onError(new IllegalStateException("CepLookupProcessor aceita apenas um assinante"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("request deve ser positivo: " + n));
+                    return;
+                }
+                synchronized (CepLookupProcessor.this) {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstreamAndLookups();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(String cep) {
+        if (cancelled || error != null) {
+            return;
+        }
+        synchronized (this) {
+            outstanding--;
+            inFlight++;
+        }
+        CompletableFuture<ViaCepResponse> lookup = service.consultarCepAsync(cep);
+        running.add(lookup);
+        // a cancel that ran before the add above did not see this lookup
+        if (cancelled || error != null) {
+            lookup.cancel(true);
+        }
+        lookup.whenComplete((response, failure) -> {
+            running.remove(lookup);
+            // queue the result before leaving inFlight so drain never sees "done" with it missing
+            if (failure == null) {
+                ready.offer(response);
+            }
+            synchronized (this) {
+                inFlight--;
+            }
+            if (failure != null && !cancelled) {
+                fail(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                return;
+            }
+            drain();
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    private void fail(Throwable throwable) {
+        if (error == null) {
+            error = throwable;
+        }
+        cancelUpstreamAndLookups();
+        drain();
+    }
+
+    private void cancelUpstreamAndLookups() {
+        Flow.Subscription subscription;
+        synchronized (this) {
+            subscription = upstream;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        for (CompletableFuture<ViaCepResponse> lookup : running) {
+            lookup.cancel(true);
+        }
+    }
+
+    // Signals to the subscriber are serialized by the wip counter: only the thread that moves it
+    // from zero emits, and any concurrent call just makes that thread loop once more.
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            Flow.Subscriber<? super ViaCepResponse> subscriber;
+            Flow.Subscription subscription;
+            synchronized (this) {
+                subscriber = downstream;
+                subscription = upstream;
+            }
+            if (subscriber != null && !terminated) {
+                if (cancelled) {
+                    ready.clear();
+                    terminated = true;
+                } else {
+                    ViaCepResponse response;
+                    while ((response = ready.poll()) != null) {
+                        subscriber.onNext(response);
+                    }
+                    Throwable failure = error;
+                    boolean complete;
+                    synchronized (this) {
+                        complete = upstreamDone && inFlight == 0;
+                    }
+                    if (failure != null) {
+                        terminated = true;
+                        subscriber.onError(failure);
+                    } else if (complete && ready.isEmpty()) {
+                        terminated = true;
+                        subscriber.onComplete();
+                    } else if (subscription != null && !upstreamDone) {
+                        long toRequest;
+                        synchronized (this) {
+                            toRequest = Math.min(demand, maxInFlight - inFlight - outstanding);
+                            if (toRequest > 0) {
+                                demand -= toRequest;
+                                outstanding += (int) toRequest;
+                            }
+                        }
+                        if (toRequest > 0) {
+                            subscription.request(toRequest);
+                        }
+                    }
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.service;
+
+import java.time.Duration;
+
+public class LookupTrace {
+    public enum Outcome { CACHE_HIT, MOCK, NETWORK, NOT_MODIFIED, ERROR }
+
+    private final String cep;
+    private final long startNanos;
+    // written by the caller thread and, for async lookups, by OkHttp's dispatcher thread
+    private volatile long cacheLookupNanos;
+    private volatile long dnsNanos;
+    private volatile long connectNanos;
+    private volatile long tlsNanos;
+    private volatile long ttfbNanos;
+    private volatile long parseNanos;
+    private volatile long totalNanos;
+    private volatile Outcome outcome;
+    private volatile Throwable error;
+
+    LookupTrace(String cep) {
+        this.cep = cep;
+        this.startNanos = System.nanoTime();
+    }
+
+    void addCacheLookup(long nanos) { cacheLookupNanos += nanos; }
+    void addDns(long nanos) { dnsNanos += nanos; }
+    void addConnect(long nanos) { connectNanos += nanos; }
+    void addTls(long nanos) { tlsNanos += nanos; }
+    void addTtfb(long nanos) { ttfbNanos += nanos; }
+    void addParse(long nanos) { parseNanos += nanos; }
+
+    void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    void fail(Throwable error) {
+        this.error = error;
+        this.outcome = Outcome.ERROR;
+    }
+
+    void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getCep() { return cep; }
+    public Outcome getOutcome() { return outcome; }
+    public Throwable getError() { return error; }
+
+    public Duration getCacheLookup() { return Duration.ofNanos(cacheLookupNanos); }
+    public Duration getDns() { return Duration.ofNanos(dnsNanos); }
+    // TCP connect only; the TLS handshake that happens inside OkHttp's connect phase is reported by getTls
+    public Duration getConnect() { return Duration.ofNanos(connectNanos); }
+    public Duration getTls() { return Duration.ofNanos(tlsNanos); }
+    // from sending the request headers to receiving the response headers
+    public Duration getTtfb() { return Duration.ofNanos(ttfbNanos); }
+    public Duration getParse() { return Duration.ofNanos(parseNanos); }
+    public Duration getTotal() { return Duration.ofNanos(totalNanos); }
+
+    @Override
+    public String toString() {
+        return "LookupTrace{" +
+                "cep='" + cep + '\'' +
+                ", outcome=" + outcome +
+                ", totalUs=" + totalNanos / 1000 +
+                ", cacheUs=" + cacheLookupNanos / 1000 +
+                ", dnsUs=" + dnsNanos / 1000 +
+                ", connectUs=" + connectNanos / 1000 +
+                ", tlsUs=" + tlsNanos / 1000 +
+                ", ttfbUs=" + ttfbNanos / 1000 +
+                ", parseUs=" + parseNanos / 1000 +
+                (error != null ? ", error=" + error : "") +
+                '}';
+    }
+}
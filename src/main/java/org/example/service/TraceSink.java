@@ -0,0 +1,7 @@
+package org.example.service;
+
+// Receives one LookupTrace per sampled consultarCep call, on the thread that finished the lookup.
+@FunctionalInterface
+public interface TraceSink {
+    void record(LookupTrace trace);
+}
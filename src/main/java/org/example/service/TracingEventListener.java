@@ -0,0 +1,79 @@
+package org.example.service;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+// Only calls tagged with a LookupTrace get a listener; every other call uses EventListener.NONE.
+class TracingEventListener extends EventListener {
+    static final EventListener.Factory FACTORY = call -> {
+        LookupTrace trace = call.request().tag(LookupTrace.class);
+        return trace == null ? EventListener.NONE : new TracingEventListener(trace);
+    };
+
+    private final LookupTrace trace;
+    private long dnsStart;
+    private long connectStart;
+    private long tlsStart;
+    private long tlsTotal;
+    private long requestStart;
+
+    private TracingEventListener(LookupTrace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        trace.addDns(System.nanoTime() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        tlsTotal = 0;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsTotal = System.nanoTime() - tlsStart;
+        trace.addTls(tlsTotal);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        trace.addConnect(System.nanoTime() - connectStart - tlsTotal);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        trace.addConnect(System.nanoTime() - connectStart - tlsTotal);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        trace.addTtfb(System.nanoTime() - requestStart);
+    }
+}
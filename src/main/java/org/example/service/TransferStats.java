@@ -0,0 +1,43 @@
+package org.example.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TransferStats {
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong bytesDownloaded = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong diskCacheHits = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    void recordDownload(long bytes) {
+        downloads.incrementAndGet();
+        bytesDownloaded.addAndGet(bytes);
+    }
+
+    void recordNotModified(long bytesReused) {
+        notModified.incrementAndGet();
+        bytesSaved.addAndGet(bytesReused);
+    }
+
+    void recordDiskCacheHit(long bytesReused) {
+        diskCacheHits.incrementAndGet();
+        bytesSaved.addAndGet(bytesReused);
+    }
+
+    public long getDownloads() { return downloads.get(); }
+    public long getBytesDownloaded() { return bytesDownloaded.get(); }
+    public long getNotModified() { return notModified.get(); }
+    public long getDiskCacheHits() { return diskCacheHits.get(); }
+    public long getBytesSaved() { return bytesSaved.get(); }
+
+    @Override
+    public String toString() {
+        return "TransferStats{" +
+                "downloads=" + downloads +
+                ", bytesDownloaded=" + bytesDownloaded +
+                ", notModified=" + notModified +
+                ", diskCacheHits=" + diskCacheHits +
+                ", bytesSaved=" + bytesSaved +
+                '}';
+    }
+}
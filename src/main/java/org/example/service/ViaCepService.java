@@ -1,51 +1,395 @@
 package org.example.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.example.cache.CacheWarmer;
+import org.example.cache.CepCache;
+import org.example.cache.RateLimiter;
+import org.example.model.LazyViaCepResponse;
 import org.example.model.ViaCepResponse;
 
+import java.io.File;
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 public class ViaCepService {
-    private static final String BASE_URL = "https://viacep.com.br/ws";
+    private static final HttpUrl DEFAULT_BASE_URL = HttpUrl.get("https://viacep.com.br/ws/");
+    private static final Pattern NON_DIGITS = Pattern.compile("[^0-9]");
+    private static final int MAX_CACHED_CITY_URLS = 1024;
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
-    private boolean useMock = true;
+    private final CepCache cache;
+    private final Cache httpCache;
+    private final TransferStats transferStats = new TransferStats();
+    private final AtomicReference<UrlTemplates> urlTemplates = new AtomicReference<>(new UrlTemplates(DEFAULT_BASE_URL));
+    private volatile boolean useMock = true;
+    private volatile boolean lazyDecoding;
+    private volatile TraceSink traceSink;
+    private volatile double traceSampleRate;
+    private volatile CacheWarmer warmer;
+    private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+    private volatile long refreshWindowNanos;
+    private volatile RateLimiter refreshLimiter;
+    private ExecutorService refreshExecutor;
 
     public ViaCepService() {
+        this(new CepCache(Duration.ofHours(1), 10_000));
+    }
+
+    public ViaCepService(CepCache cache) {
+        this(cache, null);
+    }
+
+    // The disk cache only stores what the upstream marks as cacheable; conditional
+    // revalidation against CepCache entries works with or without it.
+    public ViaCepService(CepCache cache, File httpCacheDir, long httpCacheMaxBytes) {
+        this(cache, new Cache(httpCacheDir, httpCacheMaxBytes));
+    }
+
+    private ViaCepService(CepCache cache, Cache httpCache) {
+        this.cache = cache;
+        this.httpCache = httpCache;
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(Duration.ofSeconds(5))
                 .readTimeout(Duration.ofSeconds(5))
+                .cache(httpCache)
+                .eventListenerFactory(TracingEventListener.FACTORY)
                 .build();
         this.objectMapper = new ObjectMapper();
     }
 
     public ViaCepResponse consultarCep(String cep) throws IOException {
+        String cleanCep = NON_DIGITS.matcher(cep).replaceAll("");
+        int key = CepCache.encode(cleanCep);
+        LookupTrace trace = sampleTrace(cleanCep);
+
+        try {
+            CepCache.Entry entry = lookupCache(key, trace);
+            ViaCepResponse cached = freshValue(entry, key, cleanCep);
+            if (cached != null) {
+                if (trace != null) {
+                    trace.setOutcome(LookupTrace.Outcome.CACHE_HIT);
+                }
+                return cached;
+            }
+
+            return loadCep(key, cleanCep, entry, trace);
+        } catch (IOException | RuntimeException e) {
+            if (trace != null) {
+                trace.fail(e);
+            }
+            throw e;
+        } finally {
+            finishTrace(trace);
+        }
+    }
+
+    // The cache lookup may be a round trip to a cluster peer, so the rest of the lookup continues on
+    // whichever thread completes it instead of blocking the caller. Cancelling the returned future
+    // cancels the underlying OkHttp call.
+    public CompletableFuture<ViaCepResponse> consultarCepAsync(String cep) {
+        String cleanCep = NON_DIGITS.matcher(cep).replaceAll("");
+        int key = CepCache.encode(cleanCep);
+        LookupTrace trace = sampleTrace(cleanCep);
+        long lookupStart = System.nanoTime();
+
+        CompletableFuture<ViaCepResponse> future = new CompletableFuture<>();
+        cache.getEntryAsync(key).whenComplete((entry, error) -> {
+            if (trace != null) {
+                trace.addCacheLookup(System.nanoTime() - lookupStart);
+            }
+            if (error != null) {
+                failAsync(future, error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error, trace);
+                return;
+            }
+            try {
+                resolveAsync(future, key, cleanCep, entry, trace);
+            } catch (RuntimeException e) {
+                failAsync(future, e, trace);
+            }
+        });
+        return future;
+    }
+
+    private void resolveAsync(CompletableFuture<ViaCepResponse> future, int key, String cleanCep,
+                              CepCache.Entry entry, LookupTrace trace) {
+        ViaCepResponse cached = freshValue(entry, key, cleanCep);
+        if (cached != null) {
+            if (trace != null) {
+                trace.setOutcome(LookupTrace.Outcome.CACHE_HIT);
+            }
+            finishTrace(trace);
+            future.complete(cached);
+            return;
+        }
         if (useMock) {
-            return createMockCepResponse(cep);
+            ViaCepResponse result;
+            try {
+                result = loadCep(key, cleanCep, entry, trace);
+            } catch (IOException e) {
+                failAsync(future, e, trace);
+                return;
+            }
+            finishTrace(trace);
+            future.complete(result);
+            return;
+        }
+        if (future.isCancelled()) {
+            failAsync(future, new CancellationException("Consulta cancelada antes da requisição"), trace);
+            return;
         }
 
-        String cleanCep = cep.replaceAll("[^0-9]", "");
-        String url = BASE_URL + "/" + cleanCep + "/json/";
+        Call call = httpClient.newCall(buildCepRequest(cleanCep, entry, trace));
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                failAsync(future, e, trace);
+            }
 
-        Request request = new Request.Builder()
-                .url(url)
-                .get()
+            @Override
+            public void onResponse(Call call, Response response) {
+                ViaCepResponse result;
+                try (response) {
+                    result = handleCepResponse(key, entry, response, trace);
+                } catch (IOException | RuntimeException e) {
+                    failAsync(future, e, trace);
+                    return;
+                }
+                // the trace is recorded before the caller can observe the result
+                finishTrace(trace);
+                future.complete(result);
+            }
+        });
+        // a cancelled call still reaches onFailure, which records its trace
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+    }
+
+    private void failAsync(CompletableFuture<ViaCepResponse> future, Throwable error, LookupTrace trace) {
+        if (trace != null) {
+            trace.fail(error);
+        }
+        finishTrace(trace);
+        future.completeExceptionally(error);
+    }
+
+    private CepCache.Entry lookupCache(int key, LookupTrace trace) {
+        if (trace == null) {
+            return cache.getEntry(key);
+        }
+        long start = System.nanoTime();
+        CepCache.Entry entry = cache.getEntry(key);
+        trace.addCacheLookup(System.nanoTime() - start);
+        return entry;
+    }
+
+    // Unsampled calls get no trace at all, so the HTTP call uses EventListener.NONE and
+    // none of the timing branches run.
+    private LookupTrace sampleTrace(String cleanCep) {
+        TraceSink sink = traceSink;
+        if (sink == null) {
+            return null;
+        }
+        double rate = traceSampleRate;
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return null;
+        }
+        return new LookupTrace(cleanCep);
+    }
+
+    private void finishTrace(LookupTrace trace) {
+        TraceSink sink = traceSink;
+        if (trace == null || sink == null) {
+            return;
+        }
+        trace.finish();
+        try {
+            sink.record(trace);
+        } catch (RuntimeException e) {
+            // a broken sink must not fail the lookup
+        }
+    }
+
+    public void setTracing(TraceSink sink, double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate deve estar entre 0 e 1");
+        }
+        this.traceSampleRate = sampleRate;
+        this.traceSink = sink;
+    }
+
+    private ViaCepResponse freshValue(CepCache.Entry entry, int key, String cleanCep) {
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.isExpired(now)) {
+            return null;
+        }
+        if (refreshWindowNanos > 0 && entry.getExpiresAtNanos() - now <= refreshWindowNanos) {
+            scheduleRefresh(key, cleanCep);
+        }
+        return entry.getValue();
+    }
+
+    private ViaCepResponse loadCep(int key, String cleanCep, CepCache.Entry previous,
+                                   LookupTrace trace) throws IOException {
+        if (useMock) {
+            if (trace != null) {
+                trace.setOutcome(LookupTrace.Outcome.MOCK);
+            }
+            ViaCepResponse response = createMockCepResponse(cleanCep);
+            if (!response.isErro()) {
+                cache.put(key, response);
+            }
+            return response;
+        }
+        return fetchCep(key, cleanCep, previous, trace);
+    }
+
+    // Refreshes for the same key are coalesced, and when the limiter has no permit the
+    // refresh is simply skipped: the stale value keeps being served and the next hit retries.
+    private void scheduleRefresh(int key, String cleanCep) {
+        RateLimiter limiter = refreshLimiter;
+        if (limiter == null || !refreshing.add(key)) {
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            refreshing.remove(key);
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadCep(key, cleanCep, cache.getEntry(key), null);
+                } catch (IOException | RuntimeException e) {
+                    // keep serving the current value until it expires
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    public synchronized void setRefreshAhead(Duration window, double refreshesPerSecond) {
+        if (window == null || window.isZero() || window.isNegative()) {
+            refreshWindowNanos = 0;
+            refreshLimiter = null;
+            return;
+        }
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+                Thread thread = new Thread(runnable, "cep-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        refreshLimiter = new RateLimiter(refreshesPerSecond);
+        refreshWindowNanos = window.toNanos();
+    }
+
+    public boolean isRefreshing(String cep) {
+        return refreshing.contains(CepCache.encode(NON_DIGITS.matcher(cep).replaceAll("")));
+    }
+
+    // A stale entry with validators turns the fetch into a conditional request; on 304 the
+    // cached ViaCepResponse is reused as-is and only its TTL is renewed.
+    private ViaCepResponse fetchCep(int key, String cleanCep, CepCache.Entry previous,
+                                    LookupTrace trace) throws IOException {
+        try (Response response = httpClient.newCall(buildCepRequest(cleanCep, previous, trace)).execute()) {
+            return handleCepResponse(key, previous, response, trace);
+        }
+    }
+
+    private Request buildCepRequest(String cleanCep, CepCache.Entry previous, LookupTrace trace) {
+        HttpUrl url = urlTemplates.get().base.newBuilder()
+                .addEncodedPathSegment(cleanCep)
+                .addEncodedPathSegment("json")
+                .addEncodedPathSegment("")
                 .build();
 
-        try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body().string();
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(url)
+                .get();
+        if (trace != null) {
+            requestBuilder.tag(LookupTrace.class, trace);
+        }
+        if (previous != null && previous.hasValidators()) {
+            if (previous.getEtag() != null) {
+                requestBuilder.header("If-None-Match", previous.getEtag());
+            }
+            if (previous.getLastModified() != null) {
+                requestBuilder.header("If-Modified-Since", previous.getLastModified());
+            }
+        }
+        return requestBuilder.build();
+    }
 
-            if (!response.isSuccessful()) {
-                throw new IOException("HTTP Error: " + response.code());
+    private ViaCepResponse handleCepResponse(int key, CepCache.Entry previous, Response response,
+                                             LookupTrace trace) throws IOException {
+        if (response.code() == 304 && previous != null && previous.hasValidators()) {
+            if (trace != null) {
+                trace.setOutcome(LookupTrace.Outcome.NOT_MODIFIED);
             }
+            transferStats.recordNotModified(previous.getBodyBytes());
+            cache.put(key, previous.getValue(), previous.getEtag(), previous.getLastModified(), previous.getBodyBytes());
+            return previous.getValue();
+        }
+
+        byte[] responseBody = response.body().bytes();
+
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP Error: " + response.code());
+        }
 
-            return objectMapper.readValue(responseBody, ViaCepResponse.class);
+        recordTransfer(response, responseBody.length);
+        long parseStart = trace != null ? System.nanoTime() : 0;
+        ViaCepResponse parsed = lazyDecoding
+                ? LazyViaCepResponse.parse(responseBody)
+                : objectMapper.readValue(responseBody, ViaCepResponse.class);
+        if (trace != null) {
+            trace.addParse(System.nanoTime() - parseStart);
+            trace.setOutcome(LookupTrace.Outcome.NETWORK);
+        }
+        if (!parsed.isErro()) {
+            cache.put(key, parsed, response.header("ETag"), response.header("Last-Modified"), responseBody.length);
+        }
+        return parsed;
+    }
+
+    private void recordTransfer(Response response, long bodyBytes) {
+        Response networkResponse = response.networkResponse();
+        if (networkResponse == null) {
+            transferStats.recordDiskCacheHit(bodyBytes);
+        } else if (networkResponse.code() == 304) {
+            transferStats.recordNotModified(bodyBytes);
+        } else {
+            transferStats.recordDownload(bodyBytes);
         }
     }
 
@@ -54,10 +398,11 @@ public class ViaCepService {
             return createMockAddressResponse(uf, cidade, logradouro);
         }
 
-        String encodedCidade = URLEncoder.encode(cidade, StandardCharsets.UTF_8);
-        String encodedLogradouro = URLEncoder.encode(logradouro, StandardCharsets.UTF_8);
-
-        String url = BASE_URL + "/" + uf + "/" + encodedCidade + "/" + encodedLogradouro + "/json/";
+        HttpUrl url = cityUrl(uf, cidade).newBuilder()
+                .addPathSegment(logradouro)
+                .addEncodedPathSegment("json")
+                .addEncodedPathSegment("")
+                .build();
 
         Request request = new Request.Builder()
                 .url(url)
@@ -65,18 +410,53 @@ public class ViaCepService {
                 .build();
 
         try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body().string();
+            byte[] responseBody = response.body().bytes();
 
             if (!response.isSuccessful()) {
                 throw new IOException("HTTP Error: " + response.code());
             }
 
+            recordTransfer(response, responseBody.length);
             return objectMapper.readValue(responseBody, ViaCepResponse[].class);
         }
     }
 
+    // Imports hit the same few cities over and over, so the encoded "/ws/{uf}/{cidade}" prefix
+    // is kept and only the street segment is encoded per call.
+    private HttpUrl cityUrl(String uf, String cidade) {
+        UrlTemplates templates = urlTemplates.get();
+        ConcurrentHashMap<String, HttpUrl> cities = templates.cities.get(uf);
+        if (cities == null) {
+            cities = templates.cities.computeIfAbsent(uf, k -> new ConcurrentHashMap<>());
+        }
+        HttpUrl url = cities.get(cidade);
+        if (url == null) {
+            url = templates.base.newBuilder()
+                    .addPathSegment(uf)
+                    .addPathSegment(cidade)
+                    .build();
+            if (cities.putIfAbsent(cidade, url) == null
+                    && templates.cachedCities.incrementAndGet() > MAX_CACHED_CITY_URLS) {
+                urlTemplates.compareAndSet(templates, new UrlTemplates(templates.base));
+            }
+        }
+        return url;
+    }
+
+    // The base URL and the city prefixes derived from it are swapped together, so a lookup
+    // never combines a new base with a prefix built from the old one.
+    private static final class UrlTemplates {
+        final HttpUrl base;
+        final ConcurrentHashMap<String, ConcurrentHashMap<String, HttpUrl>> cities = new ConcurrentHashMap<>();
+        final AtomicInteger cachedCities = new AtomicInteger();
+
+        UrlTemplates(HttpUrl base) {
+            this.base = base;
+        }
+    }
+
     private ViaCepResponse createMockCepResponse(String cep) {
-        String cleanCep = cep.replaceAll("[^0-9]", "");
+        String cleanCep = NON_DIGITS.matcher(cep).replaceAll("");
         ViaCepResponse response = new ViaCepResponse();
 
         if (cleanCep.length() != 8 || !cleanCep.matches("\\d+")) {
@@ -209,6 +589,47 @@ public class ViaCepService {
         return httpClient.newCall(request).execute();
     }
 
+    public CacheWarmer warmUp(Collection<String> ceps, int parallelism,
+                              double requestsPerSecond, double readyFraction) {
+        CacheWarmer previous = warmer;
+        if (previous != null) {
+            previous.stop();
+        }
+        CacheWarmer next = new CacheWarmer(this, ceps, parallelism, requestsPerSecond, readyFraction);
+        warmer = next;
+        return next.start();
+    }
+
+    public CacheWarmer warmUp(Path source, int parallelism,
+                              double requestsPerSecond, double readyFraction) throws IOException {
+        return warmUp(CacheWarmer.readSource(source), parallelism, requestsPerSecond, readyFraction);
+    }
+
+    public boolean isReady() {
+        CacheWarmer current = warmer;
+        return current == null || current.isReady();
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        urlTemplates.set(new UrlTemplates(HttpUrl.get(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/")));
+    }
+
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    public CepCache getCache() {
+        return cache;
+    }
+
+    public boolean isLazyDecoding() {
+        return lazyDecoding;
+    }
+
+    public void setLazyDecoding(boolean lazyDecoding) {
+        this.lazyDecoding = lazyDecoding;
+    }
+
     public boolean isUsingMock() {
         return useMock;
     }
@@ -218,7 +639,23 @@ public class ViaCepService {
     }
 
     public void close() {
+        CacheWarmer current = warmer;
+        if (current != null) {
+            current.stop();
+        }
+        synchronized (this) {
+            if (refreshExecutor != null) {
+                refreshExecutor.shutdownNow();
+            }
+        }
         httpClient.dispatcher().executorService().shutdown();
         httpClient.connectionPool().evictAll();
+        if (httpCache != null) {
+            try {
+                httpCache.close();
+            } catch (IOException e) {
+                // nothing left to flush
+            }
+        }
     }
 }
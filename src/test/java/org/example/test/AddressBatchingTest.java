@@ -0,0 +1,116 @@
+package org.example.test;
+
+import org.example.model.ViaCepResponse;
+import org.example.service.AddressBatcher;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubBackend;
+import org.example.test.support.ViaCepServiceExtension;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ViaCepServiceExtension.class)
+public class AddressBatchingTest {
+
+    private static ViaCepService viaCepService;
+    private AddressBatcher batcher;
+
+    @BeforeAll
+    static void setUp(@StubBackend ViaCepService sharedService) {
+        viaCepService = sharedService;
+    }
+
+    @BeforeEach
+    void criarBatcher() {
+        batcher = new AddressBatcher(viaCepService, Duration.ofMillis(50), 4);
+    }
+
+    @AfterEach
+    void fecharBatcher() {
+        batcher.close();
+    }
+
+    @Test
+    @DisplayName("Consultas repetidas e contidas na mesma cidade geram uma única requisição")
+    void testAgrupamentoPorCidade() throws Exception {
+        batcher.setFilterBroaderResults(true);
+        CompletableFuture<ViaCepResponse[]> paulista = batcher.consultarEndereco("SP", "São Paulo", "Paulista");
+        CompletableFuture<ViaCepResponse[]> avenida1 = batcher.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+        CompletableFuture<ViaCepResponse[]> avenida2 = batcher.consultarEndereco("SP", "São Paulo", "avenida paulista");
+        CompletableFuture<ViaCepResponse[]> se = batcher.consultarEndereco("SP", "São Paulo", "Praça da Sé");
+        CompletableFuture<ViaCepResponse[]> rio = batcher.consultarEndereco("RJ", "Rio de Janeiro", "Atlântica");
+
+        assertEquals("01310-100", paulista.get(5, TimeUnit.SECONDS)[0].getCep());
+        assertEquals("01310-100", avenida1.get(5, TimeUnit.SECONDS)[0].getCep());
+        assertEquals("01310-100", avenida2.get(5, TimeUnit.SECONDS)[0].getCep());
+        assertEquals("01000-000", se.get(5, TimeUnit.SECONDS)[0].getCep());
+        assertEquals("22071-900", rio.get(5, TimeUnit.SECONDS)[0].getCep());
+
+        assertEquals(5, batcher.getQueryCount());
+        assertEquals(3, batcher.getFetchCount(), "Paulista, Praça da Sé e Atlântica devem ir à rede");
+        assertEquals(1, batcher.getFilteredCount());
+        assertEquals(1, batcher.getDeduplicatedCount());
+    }
+
+    @Test
+    @DisplayName("Filtro sobre resultado mais amplo exclui logradouros que não correspondem")
+    void testFiltroResultadoAmplo() throws Exception {
+        batcher.setFilterBroaderResults(true);
+        CompletableFuture<ViaCepResponse[]> amplo = batcher.consultarEndereco("SP", "São Paulo", "Paulista");
+        CompletableFuture<ViaCepResponse[]> inexistente = batcher.consultarEndereco("SP", "São Paulo", "Paulista Inexistente");
+
+        assertEquals(1, amplo.get(5, TimeUnit.SECONDS).length);
+        assertEquals(0, inexistente.get(5, TimeUnit.SECONDS).length);
+        assertEquals(1, batcher.getFetchCount());
+    }
+
+    @Test
+    @DisplayName("Sem filtro habilitado cada logradouro distinto vai à rede")
+    void testFiltroDesabilitadoPorPadrao() throws Exception {
+        CompletableFuture<ViaCepResponse[]> paulista = batcher.consultarEndereco("SP", "São Paulo", "Paulista");
+        CompletableFuture<ViaCepResponse[]> avenida = batcher.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+
+        assertEquals(1, paulista.get(5, TimeUnit.SECONDS).length);
+        assertEquals(1, avenida.get(5, TimeUnit.SECONDS).length);
+        assertEquals(2, batcher.getFetchCount());
+        assertEquals(0, batcher.getFilteredCount());
+    }
+
+    @Test
+    @DisplayName("Flush manual cancela o agendamento pendente da janela anterior")
+    void testFlushManualCancelaAgendamento() throws Exception {
+        try (AddressBatcher lento = new AddressBatcher(viaCepService, Duration.ofMillis(400), 4)) {
+            CompletableFuture<ViaCepResponse[]> primeira = lento.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+            lento.flush();
+            assertEquals(1, primeira.get(5, TimeUnit.SECONDS).length);
+
+            Thread.sleep(250);
+            CompletableFuture<ViaCepResponse[]> segunda = lento.consultarEndereco("RJ", "Rio de Janeiro", "Atlântica");
+            Thread.sleep(250);
+            CompletableFuture<ViaCepResponse[]> terceira = lento.consultarEndereco("RJ", "Rio de Janeiro", "Atlântica");
+
+            assertEquals(1, segunda.get(5, TimeUnit.SECONDS).length);
+            assertEquals(1, terceira.get(5, TimeUnit.SECONDS).length);
+            assertEquals(2, lento.getFetchCount());
+            assertEquals(1, lento.getDeduplicatedCount(), "A segunda janela deve reunir as duas consultas");
+        }
+    }
+
+    @Test
+    @DisplayName("Erro de uma consulta não afeta as demais do lote")
+    void testErroIsolado() throws Exception {
+        CompletableFuture<ViaCepResponse[]> valida = batcher.consultarEndereco("MG", "Belo Horizonte", "Rua da Bahia");
+        CompletableFuture<ViaCepResponse[]> vazia = batcher.consultarEndereco("MG", "Belo Horizonte", "");
+
+        assertEquals(1, valida.get(5, TimeUnit.SECONDS).length);
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> vazia.get(5, TimeUnit.SECONDS));
+        assertTrue(erro.getCause() instanceof IOException);
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.test;
+
+import org.example.cache.CacheWarmer;
+import org.example.cache.CepCache;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheWarmUpTest {
+
+    private ViaCepService viaCepService;
+
+    @BeforeEach
+    void setUp() {
+        viaCepService = new ViaCepService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        viaCepService.close();
+    }
+
+    @Test
+    @DisplayName("Pré-carregamento popula o cache e reporta prontidão")
+    void testWarmUpPopulaCache() throws Exception {
+        List<String> ceps = Arrays.asList("01310100", "22071900", "30112000", "01000000");
+
+        CacheWarmer warmer = viaCepService.warmUp(ceps, 2, 1000, 1.0);
+
+        assertTrue(warmer.awaitReady(Duration.ofSeconds(5)), "Cache deve ficar pronto");
+        assertTrue(viaCepService.isReady());
+        assertEquals(4, warmer.getLoaded());
+        for (String cep : ceps) {
+            assertTrue(viaCepService.getCache().contains(CepCache.encode(cep)), "CEP " + cep + " deve estar no cache");
+        }
+    }
+
+    @Test
+    @DisplayName("Prontidão considera apenas a fração configurada")
+    void testProntidaoParcial() throws Exception {
+        List<String> ceps = Arrays.asList("01310100", "22071900", "30112000", "01000000");
+
+        CacheWarmer warmer = viaCepService.warmUp(ceps, 1, 5, 0.25);
+
+        assertTrue(warmer.awaitReady(Duration.ofSeconds(5)));
+        assertTrue(warmer.getLoaded() + warmer.getFailed() < ceps.size(), "Limite de taxa deve manter a carga em andamento");
+        assertTrue(warmer.awaitCompletion(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("CEPs inválidos contam como falha e não entram no cache")
+    void testCepsInvalidosNaoEntramNoCache() throws Exception {
+        CacheWarmer warmer = viaCepService.warmUp(Arrays.asList("01310100", "99999999"), 2, 1000, 1.0);
+
+        assertTrue(warmer.awaitCompletion(Duration.ofSeconds(5)));
+        assertEquals(1, viaCepService.getCache().size());
+        assertEquals(1, warmer.getLoaded());
+        assertEquals(1, warmer.getFailed());
+        assertFalse(warmer.isReady(), "Metade dos CEPs carregada não atinge a fração 1.0");
+    }
+
+    @Test
+    @DisplayName("Upstream indisponível nunca reporta o cache como pronto")
+    void testUpstreamIndisponivel() throws Exception {
+        int portaFechada;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            portaFechada = socket.getLocalPort();
+        }
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl("http://127.0.0.1:" + portaFechada + "/ws/");
+
+        CacheWarmer warmer = viaCepService.warmUp(Arrays.asList("01310100", "22071900"), 2, 1000, 0.5);
+
+        assertTrue(warmer.awaitCompletion(Duration.ofSeconds(10)));
+        assertEquals(0, warmer.getLoaded());
+        assertEquals(2, warmer.getFailed());
+        assertFalse(warmer.isReady());
+        assertFalse(viaCepService.isReady());
+    }
+
+    @Test
+    @DisplayName("Parada interrompe o pré-carregamento em modo mock")
+    void testParadaEmModoMock() throws Exception {
+        CacheWarmer warmer = viaCepService.warmUp(cepsSequenciais(500_000), 4, 1_000_000_000, 1.0);
+        aguardarCarga(warmer, 1000);
+
+        warmer.stop();
+        assertContadoresEstaveis(warmer);
+    }
+
+    @Test
+    @DisplayName("Parada interrompe o pré-carregamento via HTTP")
+    void testParadaViaHttp() throws Exception {
+        try (StubViaCepServer server = new StubViaCepServer()) {
+            server.setResponseDelay(Duration.ofMillis(5));
+            viaCepService.setUseMock(false);
+            viaCepService.setBaseUrl(server.baseUrl());
+            CacheWarmer warmer = viaCepService.warmUp(cepsSequenciais(2000), 4, 1_000_000_000, 1.0);
+            aguardarCarga(warmer, 10);
+
+            warmer.stop();
+            assertContadoresEstaveis(warmer);
+        }
+    }
+
+    private static List<String> cepsSequenciais(int quantidade) {
+        List<String> ceps = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ceps.add(String.format("%08d", 10_000_000 + i));
+        }
+        return ceps;
+    }
+
+    private static void aguardarCarga(CacheWarmer warmer, int minimo) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (warmer.getLoaded() + warmer.getFailed() < minimo) {
+            assertTrue(System.nanoTime() < limite, "Pré-carregamento não avançou a tempo");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertContadoresEstaveis(CacheWarmer warmer) throws InterruptedException {
+        assertTrue(warmer.awaitCompletion(Duration.ofSeconds(1)), "Workers devem encerrar logo após a parada");
+        int carregados = warmer.getLoaded();
+        int falhas = warmer.getFailed();
+        Thread.sleep(200);
+        assertEquals(carregados, warmer.getLoaded());
+        assertEquals(falhas, warmer.getFailed());
+        assertTrue(carregados + falhas < warmer.getTotal(), "Parada deve deixar CEPs sem processar");
+    }
+
+    @Test
+    @DisplayName("Snapshot das chaves do cache serve como fonte de pré-carregamento")
+    void testSnapshotDeChaves(@TempDir Path dir) throws Exception {
+        viaCepService.consultarCep("01310-100");
+        viaCepService.consultarCep("30112000");
+        Path snapshot = dir.resolve("hot-ceps.txt");
+        viaCepService.getCache().saveKeys(snapshot);
+
+        ViaCepService nextProcess = new ViaCepService();
+        try {
+            CacheWarmer warmer = nextProcess.warmUp(snapshot, 2, 1000, 1.0);
+            assertTrue(warmer.awaitReady(Duration.ofSeconds(5)));
+            assertTrue(nextProcess.getCache().contains(CepCache.encode("01310100")));
+            assertTrue(nextProcess.getCache().contains(CepCache.encode("30112000")));
+        } finally {
+            nextProcess.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Fonte ignora linhas vazias e comentários")
+    void testLeituraDaFonte(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("top-ceps.txt");
+        Files.write(source, Arrays.asList("# top CEPs", "01310100", "", "  22071900  "), StandardCharsets.UTF_8);
+
+        assertEquals(Arrays.asList("01310100", "22071900"), CacheWarmer.readSource(source));
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CepCacheTest {
+
+    @Test
+    @DisplayName("Cache cheio descarta a entrada menos usada e aceita a nova")
+    void testEvictionLru() {
+        CepCache cache = new CepCache(Duration.ofMinutes(1), 1);
+        ViaCepResponse response = new ViaCepResponse();
+
+        cache.put(1310100, response);
+        cache.put(22071900, response);
+
+        assertEquals(1, cache.size());
+        assertFalse(cache.contains(1310100));
+        assertTrue(cache.contains(22071900), "Chave nova deve entrar mesmo com o cache cheio");
+    }
+
+    @Test
+    @DisplayName("Chaves acessadas com frequência sobrevivem a um fluxo de chaves novas")
+    void testChavesQuentesSobrevivem() {
+        CepCache cache = new CepCache(Duration.ofMinutes(1), 1000);
+        ViaCepResponse response = new ViaCepResponse();
+        int[] quentes = {1310100, 22071900, 30112000, 1000000};
+        for (int quente : quentes) {
+            cache.put(quente, response);
+        }
+
+        for (int cep = 40000000; cep < 40020000; cep++) {
+            cache.put(cep, response);
+            if (cep % 50 == 0) {
+                for (int quente : quentes) {
+                    assertTrue(cache.contains(quente), "CEP quente " + quente + " não deve ser descartado");
+                }
+            }
+        }
+
+        assertTrue(cache.size() <= 1000, "Cache não deve passar da capacidade, tem " + cache.size());
+    }
+}
@@ -3,7 +3,9 @@ package org.example.test;
 import org.example.model.ViaCepResponse;
 import org.example.service.ViaCepService;
 import org.example.test.criteria.TestCriteria;
+import org.example.test.support.ViaCepServiceExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -11,21 +13,15 @@ import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(ViaCepServiceExtension.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class CepInvalidInputTest {
 
     private static ViaCepService viaCepService;
 
     @BeforeAll
-    static void setUp() {
-        viaCepService = new ViaCepService();
-    }
-
-    @AfterAll
-    static void tearDown() {
-        if (viaCepService != null) {
-            viaCepService.close();
-        }
+    static void setUp(ViaCepService sharedService) {
+        viaCepService = sharedService;
     }
 
     @Test
@@ -0,0 +1,277 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.cache.cluster.CacheNode;
+import org.example.cache.cluster.ClusterCepCache;
+import org.example.cache.cluster.ConsistentHashRing;
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterCacheTest {
+
+    private final List<CacheNode> nodes = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            CacheNode node = new CacheNode(new InetSocketAddress("127.0.0.1", 0), Duration.ofMinutes(5));
+            nodes.add(node);
+            addresses.add(node.getAddress());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(CacheNode::close);
+    }
+
+    @Test
+    @DisplayName("Pod diferente encontra no cluster o CEP carregado por outro pod")
+    void testHitEntrePods() throws Exception {
+        ClusterCepCache cacheA = new ClusterCepCache(addresses, Duration.ofSeconds(30), 100);
+        ClusterCepCache cacheB = new ClusterCepCache(addresses, Duration.ofSeconds(30), 100);
+        ViaCepService podA = new ViaCepService(cacheA);
+        ViaCepService podB = new ViaCepService(cacheB);
+        try {
+            ViaCepResponse original = podA.consultarCep("01310-100");
+            assertEquals(1, cacheA.getRemoteMisses(), "Primeira consulta deve ser um miss no cluster");
+            aguardar(() -> totalNosNos() == 1);
+
+            ViaCepResponse remoto = podB.consultarCep("01310100");
+
+            assertEquals(1, cacheB.getRemoteHits(), "Segundo pod deve encontrar o CEP no cluster");
+            assertEquals(original.getLogradouro(), remoto.getLogradouro());
+            assertEquals(original.getUf(), remoto.getUf());
+
+            podB.consultarCep("01310100");
+            assertEquals(1, cacheB.getRemoteHits(), "Consulta repetida deve ser atendida pelo near-cache");
+        } finally {
+            podA.close();
+            podB.close();
+            cacheA.close();
+            cacheB.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Validadores HTTP acompanham o CEP compartilhado pelo cluster")
+    void testValidadoresEntrePods() throws Exception {
+        ClusterCepCache cacheA = new ClusterCepCache(addresses, Duration.ofSeconds(30), 100);
+        ClusterCepCache cacheB = new ClusterCepCache(addresses, Duration.ofSeconds(30), 100);
+        ViaCepService podA = new ViaCepService(cacheA);
+        try (StubViaCepServer server = new StubViaCepServer()) {
+            podA.setUseMock(false);
+            podA.setBaseUrl(server.baseUrl());
+            podA.consultarCep("01310100");
+            aguardar(() -> totalNosNos() == 1);
+
+            int key = CepCache.encode("01310100");
+            CepCache.Entry local = cacheA.getEntry(key);
+            CepCache.Entry remoto = cacheB.getEntry(key);
+
+            assertEquals(1, cacheB.getRemoteHits());
+            assertNotNull(local.getEtag());
+            assertEquals(local.getEtag(), remoto.getEtag());
+            assertEquals(local.getBodyBytes(), remoto.getBodyBytes());
+            assertTrue(remoto.getBodyBytes() > 0);
+            assertTrue(remoto.hasValidators());
+        } finally {
+            podA.close();
+            cacheA.close();
+            cacheB.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Chaves são particionadas entre os nós")
+    void testParticionamento() throws Exception {
+        ClusterCepCache cache = new ClusterCepCache(addresses, Duration.ofSeconds(30), 1000);
+        try {
+            ViaCepResponse response = new ViaCepResponse();
+            response.setUf("SP");
+            for (int cep = 1000000; cep < 1000300; cep++) {
+                cache.put(cep, response);
+            }
+
+            aguardar(() -> totalNosNos() == 300);
+            for (CacheNode node : nodes) {
+                assertTrue(node.size() > 0, "Todo nó deve receber parte das chaves");
+            }
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Peer indisponível é tratado como miss")
+    void testPeerIndisponivel() throws Exception {
+        nodes.forEach(CacheNode::close);
+        ClusterCepCache cache = new ClusterCepCache(addresses, Duration.ofSeconds(30), 100);
+        ViaCepService pod = new ViaCepService(cache);
+        try {
+            ViaCepResponse response = pod.consultarCep("22071900");
+
+            assertFalse(response.isErro());
+            assertTrue(cache.getRemoteErrors() > 0);
+            assertNotNull(cache.getEntry(CepCache.encode("22071900")), "Near-cache continua funcionando");
+        } finally {
+            pod.close();
+            cache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Peer que não responde entra em backoff e não atrasa consultas seguintes")
+    void testPeerSemResposta() throws Exception {
+        List<Socket> aceitos = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (ServerSocket mudo = new ServerSocket(0, 50, java.net.InetAddress.getLoopbackAddress())) {
+            Thread aceitador = new Thread(() -> {
+                try {
+                    while (true) {
+                        aceitos.add(mudo.accept());
+                    }
+                } catch (Exception e) {
+                    // servidor fechado
+                }
+            });
+            aceitador.setDaemon(true);
+            aceitador.start();
+
+            ClusterCepCache cache = new ClusterCepCache(
+                    List.of(new InetSocketAddress("127.0.0.1", mudo.getLocalPort())),
+                    Duration.ofSeconds(30), 100, Duration.ofMillis(200), 64, 4);
+            ViaCepService pod = new ViaCepService(cache);
+            try {
+                long primeiraRodada = consultarEmParalelo(pool, pod, "01310100", "22071900", "30112000", "01000000");
+                assertTrue(primeiraRodada < 600,
+                        "Consultas simultâneas não devem esperar umas pelas outras, levaram " + primeiraRodada + "ms");
+
+                long segundaRodada = consultarEmParalelo(pool, pod, "01310-100", "22071-900", "30112-000", "01000-000");
+                assertTrue(segundaRodada < 150, "Peer em backoff deve falhar rápido, levou " + segundaRodada + "ms");
+            } finally {
+                pod.close();
+                cache.close();
+                for (Socket socket : aceitos) {
+                    socket.close();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Consulta assíncrona não bloqueia quem chama enquanto o peer demora")
+    void testConsultaAssincronaNaoBloqueia() throws Exception {
+        // connections complete in the listen backlog, but nothing ever answers them
+        try (ServerSocket mudo = new ServerSocket(0, 50, java.net.InetAddress.getLoopbackAddress())) {
+            ClusterCepCache cache = new ClusterCepCache(
+                    List.of(new InetSocketAddress("127.0.0.1", mudo.getLocalPort())),
+                    Duration.ofSeconds(30), 100, Duration.ofSeconds(1), 64, 4);
+            ViaCepService pod = new ViaCepService(cache);
+            try {
+                long inicio = System.nanoTime();
+                CompletableFuture<ViaCepResponse> consulta = pod.consultarCepAsync("01310100");
+                long retorno = (System.nanoTime() - inicio) / 1_000_000;
+
+                assertTrue(retorno < 200, "Chamada assíncrona levou " + retorno + "ms para retornar");
+                assertFalse(consulta.isDone(), "Consulta ainda aguarda o peer");
+                assertEquals("01310-100", consulta.get(5, TimeUnit.SECONDS).getCep());
+                assertEquals(1, cache.getRemoteErrors());
+            } finally {
+                pod.close();
+                cache.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Nó limita o número de entradas e remove expiradas periodicamente")
+    void testLimiteEVarreduraDoNo() throws Exception {
+        CacheNode limitado = new CacheNode(new InetSocketAddress("127.0.0.1", 0), Duration.ofMillis(200), 50);
+        ClusterCepCache cache = new ClusterCepCache(List.of(limitado.getAddress()), Duration.ofSeconds(30), 1000);
+        try {
+            ViaCepResponse response = new ViaCepResponse();
+            response.setUf("SP");
+            for (int cep = 1000000; cep < 1000200; cep++) {
+                cache.put(cep, response);
+            }
+            aguardar(() -> cache.getRemoteErrors() == 0 && limitado.size() == 50);
+
+            aguardar(() -> limitado.size() == 0);
+        } finally {
+            cache.close();
+            limitado.close();
+        }
+    }
+
+    private static long consultarEmParalelo(ExecutorService pool, ViaCepService pod, String... ceps) throws Exception {
+        long inicio = System.nanoTime();
+        List<Future<?>> consultas = new ArrayList<>();
+        for (String cep : ceps) {
+            consultas.add(pool.submit(() -> {
+                pod.getCache().invalidate(CepCache.encode(cep.replace("-", "")));
+                assertFalse(pod.consultarCep(cep).isErro());
+                return null;
+            }));
+        }
+        for (Future<?> consulta : consultas) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    private int totalNosNos() {
+        return nodes.stream().mapToInt(CacheNode::size).sum();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Anel consistente mantém a maioria das chaves ao adicionar um nó")
+    void testAnelConsistente() {
+        ConsistentHashRing<String> tres = new ConsistentHashRing<>(Arrays.asList("a", "b", "c"), 64);
+        ConsistentHashRing<String> quatro = new ConsistentHashRing<>(Arrays.asList("a", "b", "c", "d"), 64);
+
+        Map<String, Integer> distribuicao = new HashMap<>();
+        int movidas = 0;
+        for (int cep = 1000000; cep < 1010000; cep++) {
+            distribuicao.merge(tres.nodeFor(cep), 1, Integer::sum);
+            if (!tres.nodeFor(cep).equals(quatro.nodeFor(cep))) {
+                movidas++;
+            }
+        }
+
+        assertEquals(3, distribuicao.size());
+        assertTrue(movidas < 4000, "Apenas cerca de 1/4 das chaves deve mudar de nó, mudaram " + movidas);
+    }
+}
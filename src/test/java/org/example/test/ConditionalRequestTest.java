@@ -0,0 +1,72 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalRequestTest {
+
+    private StubViaCepServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubViaCepServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Entrada expirada é revalidada com If-None-Match e reaproveitada no 304")
+    void testRevalidacaoComEtag() throws Exception {
+        ViaCepService viaCepService = new ViaCepService(new CepCache(Duration.ofMillis(100), 100));
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl(server.baseUrl());
+        try {
+            ViaCepResponse primeira = viaCepService.consultarCep("01310100");
+            Thread.sleep(150);
+            ViaCepResponse segunda = viaCepService.consultarCep("01310100");
+
+            assertSame(primeira, segunda, "Resposta em cache deve ser reaproveitada");
+            assertEquals(1, server.getNotModifiedCount());
+            assertEquals(1, viaCepService.getTransferStats().getDownloads());
+            assertEquals(1, viaCepService.getTransferStats().getNotModified());
+            assertEquals(viaCepService.getTransferStats().getBytesDownloaded(),
+                    viaCepService.getTransferStats().getBytesSaved());
+            assertTrue(viaCepService.getCache().contains(CepCache.encode("01310100")), "TTL deve ser renovado");
+        } finally {
+            viaCepService.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Cache em disco do OkHttp atende respostas cacheáveis sem ir à rede")
+    void testCacheEmDisco(@TempDir Path dir) throws Exception {
+        server.setCacheControl("max-age=60");
+        ViaCepService viaCepService = new ViaCepService(new CepCache(Duration.ofMillis(100), 100),
+                dir.toFile(), 1024 * 1024);
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl(server.baseUrl());
+        try {
+            viaCepService.consultarCep("01310100");
+            viaCepService.getCache().clear();
+            ViaCepResponse response = viaCepService.consultarCep("01310100");
+
+            assertEquals("Avenida Paulista", response.getLogradouro());
+            assertEquals(1, server.getRequestCount(), "Segunda consulta deve vir do cache em disco");
+            assertEquals(1, viaCepService.getTransferStats().getDiskCacheHits());
+        } finally {
+            viaCepService.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.LazyViaCepResponse;
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.example.test.support.ViaCepServiceExtension;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ViaCepServiceExtension.class)
+public class LazyDecodingTest {
+
+    private static final String RESPOSTA_COMPLETA = "{\n" +
+            "  \"cep\": \"01310-100\",\n" +
+            "  \"logradouro\": \"Avenida Paulista\",\n" +
+            "  \"complemento\": \"de 612 a 1510 - lado par\",\n" +
+            "  \"unidade\": \"\",\n" +
+            "  \"bairro\": \"Bela Vista\",\n" +
+            "  \"localidade\": \"São Paulo\",\n" +
+            "  \"uf\": \"SP\",\n" +
+            "  \"estado\": {\"nome\": \"São Paulo\", \"sigla\": [\"SP\"]},\n" +
+            "  \"ibge\": \"3550308\",\n" +
+            "  \"gia\": null,\n" +
+            "  \"ddd\": 11,\n" +
+            "  \"siafi\": \"7107\"\n" +
+            "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Campos decodificados sob demanda coincidem com o Jackson")
+    void testEquivalenciaComJackson() throws IOException {
+        byte[] bytes = RESPOSTA_COMPLETA.getBytes(StandardCharsets.UTF_8);
+        ViaCepResponse esperado = objectMapper.readValue(bytes, ViaCepResponse.class);
+        LazyViaCepResponse lazy = LazyViaCepResponse.parse(bytes);
+
+        assertEquals(esperado.getCep(), lazy.getCep());
+        assertEquals(esperado.getLogradouro(), lazy.getLogradouro());
+        assertEquals(esperado.getComplemento(), lazy.getComplemento());
+        assertEquals(esperado.getBairro(), lazy.getBairro());
+        assertEquals(esperado.getLocalidade(), lazy.getLocalidade());
+        assertEquals(esperado.getUf(), lazy.getUf());
+        assertEquals(esperado.getIbge(), lazy.getIbge());
+        assertEquals(esperado.getGia(), lazy.getGia());
+        assertEquals(esperado.getDdd(), lazy.getDdd());
+        assertEquals(esperado.getSiafi(), lazy.getSiafi());
+        assertFalse(lazy.isErro());
+    }
+
+    @Test
+    @DisplayName("Sequências de escape são decodificadas")
+    void testEscapes() throws IOException {
+        String json = "{\"logradouro\": \"Rua \\\"Nova\\\" \\u00c1gua\\\\Leste\", \"uf\": \"SP\"}";
+        LazyViaCepResponse lazy = LazyViaCepResponse.parse(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("Rua \"Nova\" Água\\Leste", lazy.getLogradouro());
+        assertEquals("SP", lazy.getUf());
+        assertNull(lazy.getBairro());
+    }
+
+    @Test
+    @DisplayName("Valores vazios, nulos e escapados mantêm as posições dos vizinhos")
+    void testValoresCompactados() throws IOException {
+        String json = "{\"cep\": \"\", \"logradouro\": \"Rua \\\"A\\\"\", \"bairro\": null, " +
+                "\"localidade\": \"São Paulo\", \"uf\": \"SP\", \"uf\": \"RJ\", \"ddd\": 21}";
+        LazyViaCepResponse lazy = LazyViaCepResponse.parse(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("", lazy.getCep());
+        assertEquals("Rua \"A\"", lazy.getLogradouro());
+        assertNull(lazy.getBairro());
+        assertEquals("São Paulo", lazy.getLocalidade());
+        assertEquals("RJ", lazy.getUf(), "Chave repetida usa o último valor, como o Jackson");
+        assertEquals("21", lazy.getDdd());
+        assertNull(lazy.getSiafi());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"erro\": true}", "{\"erro\": \"true\"}"})
+    @DisplayName("Flag de erro aceita booleano e string")
+    void testFlagErro(String json) throws IOException {
+        assertTrue(LazyViaCepResponse.parse(json.getBytes(StandardCharsets.UTF_8)).isErro());
+    }
+
+    @Test
+    @DisplayName("Setter sobrescreve o valor bruto")
+    void testSetter() throws IOException {
+        LazyViaCepResponse lazy = LazyViaCepResponse.parse(RESPOSTA_COMPLETA.getBytes(StandardCharsets.UTF_8));
+
+        lazy.setUf("RJ");
+        lazy.setBairro(null);
+
+        assertEquals("RJ", lazy.getUf());
+        assertNull(lazy.getBairro());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "[]", "{\"cep\": \"0131", "{\"cep\" \"x\"}"})
+    @DisplayName("JSON malformado gera IOException")
+    void testJsonMalformado(String json) {
+        assertThrows(IOException.class, () -> LazyViaCepResponse.parse(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Serviço com decodificação preguiçosa retorna a visão lazy")
+    void testServicoComDecodificacaoPreguicosa(StubViaCepServer server) throws IOException {
+        ViaCepService viaCepService = new ViaCepService();
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl(server.baseUrl());
+        viaCepService.setLazyDecoding(true);
+        try {
+            ViaCepResponse response = viaCepService.consultarCep("30112000");
+
+            assertTrue(response instanceof LazyViaCepResponse);
+            assertEquals("MG", response.getUf());
+            assertEquals("Belo Horizonte", response.getLocalidade());
+            assertEquals("3106200", response.getIbge());
+        } finally {
+            viaCepService.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+import org.example.service.LookupTrace;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.example.test.support.ViaCepServiceExtension;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ViaCepServiceExtension.class)
+public class LookupTracingTest {
+
+    private final List<LookupTrace> traces = new CopyOnWriteArrayList<>();
+    private ViaCepService viaCepService;
+
+    @BeforeEach
+    void setUp(StubViaCepServer server) {
+        viaCepService = new ViaCepService(new CepCache(Duration.ofMinutes(1), 100));
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl(server.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        viaCepService.close();
+    }
+
+    @Test
+    @DisplayName("Consulta via rede registra fases de conexão, TTFB e parse")
+    void testFasesDaConsultaViaRede() throws IOException {
+        viaCepService.setTracing(traces::add, 1.0);
+
+        viaCepService.consultarCep("01310-100");
+
+        assertEquals(1, traces.size());
+        LookupTrace trace = traces.get(0);
+        assertEquals("01310100", trace.getCep());
+        assertEquals(LookupTrace.Outcome.NETWORK, trace.getOutcome());
+        assertTrue(trace.getConnect().toNanos() > 0, "Conexão nova deve ter tempo de connect");
+        assertEquals(Duration.ZERO, trace.getTls(), "Backend local não usa TLS");
+        assertTrue(trace.getTtfb().toNanos() > 0);
+        assertTrue(trace.getParse().toNanos() > 0);
+        assertTrue(trace.getTotal().compareTo(trace.getTtfb()) >= 0);
+    }
+
+    @Test
+    @DisplayName("Acerto no cache é registrado sem fases de rede")
+    void testAcertoNoCache() throws IOException {
+        viaCepService.consultarCep("22071900");
+        viaCepService.setTracing(traces::add, 1.0);
+
+        viaCepService.consultarCep("22071900");
+
+        assertEquals(1, traces.size());
+        assertEquals(LookupTrace.Outcome.CACHE_HIT, traces.get(0).getOutcome());
+        assertEquals(Duration.ZERO, traces.get(0).getTtfb());
+    }
+
+    @Test
+    @DisplayName("Falha é registrada no trace")
+    void testFalhaRegistrada() {
+        viaCepService.setTracing(traces::add, 1.0);
+
+        assertThrows(IOException.class, () -> viaCepService.consultarCep("1234"));
+
+        assertEquals(1, traces.size());
+        assertEquals(LookupTrace.Outcome.ERROR, traces.get(0).getOutcome());
+        assertTrue(traces.get(0).getError() instanceof IOException);
+    }
+
+    @Test
+    @DisplayName("Consulta assíncrona também é rastreada")
+    void testConsultaAssincrona() throws Exception {
+        viaCepService.setTracing(traces::add, 1.0);
+
+        viaCepService.consultarCepAsync("30112000").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, traces.size());
+        assertEquals(LookupTrace.Outcome.NETWORK, traces.get(0).getOutcome());
+    }
+
+    @Test
+    @DisplayName("Consulta assíncrona cancelada registra o trace como erro")
+    void testConsultaAssincronaCancelada() throws Exception {
+        try (StubViaCepServer lento = new StubViaCepServer()) {
+            lento.setResponseDelay(Duration.ofSeconds(2));
+            viaCepService.setBaseUrl(lento.baseUrl());
+            viaCepService.setTracing(traces::add, 1.0);
+
+            CompletableFuture<ViaCepResponse> future = viaCepService.consultarCepAsync("01310100");
+            future.cancel(true);
+
+            long limite = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+            while (traces.isEmpty() && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, traces.size(), "Cancelamento deve ser registrado antes do atraso do servidor");
+            assertEquals(LookupTrace.Outcome.ERROR, traces.get(0).getOutcome());
+            assertTrue(traces.get(0).getError() instanceof IOException);
+        }
+    }
+
+    @Test
+    @DisplayName("Taxa de amostragem zero não gera traces")
+    void testSemAmostragem() throws IOException {
+        viaCepService.setTracing(traces::add, 0.0);
+
+        viaCepService.consultarCep("01000000");
+
+        assertTrue(traces.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sink com falha não interrompe a consulta")
+    void testSinkComFalha() throws IOException {
+        viaCepService.setTracing(trace -> { throw new IllegalStateException("sink fora do ar"); }, 1.0);
+
+        assertFalse(viaCepService.consultarCep("90160093").isErro());
+    }
+}
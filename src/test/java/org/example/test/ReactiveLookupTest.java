@@ -0,0 +1,176 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+import org.example.service.CepLookupProcessor;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.example.test.support.UnresponsiveServer;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveLookupTest {
+
+    private StubViaCepServer server;
+    private ViaCepService viaCepService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubViaCepServer();
+        viaCepService = new ViaCepService(new CepCache(Duration.ofMinutes(1), 100));
+        viaCepService.setUseMock(false);
+        viaCepService.setBaseUrl(server.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        viaCepService.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Processor entrega todas as respostas e respeita o limite de requisições simultâneas")
+    void testLimiteEmVoo() throws Exception {
+        server.setResponseDelay(Duration.ofMillis(50));
+        CepLookupProcessor processor = new CepLookupProcessor(viaCepService, 2);
+        ColetorDeRespostas coletor = new ColetorDeRespostas(Long.MAX_VALUE);
+        processor.subscribe(coletor);
+
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (String cep : new String[]{"01310100", "22071900", "30112000", "01000000", "90160093", "99999999"}) {
+                publisher.submit(cep);
+            }
+        }
+
+        assertTrue(coletor.concluido.await(5, TimeUnit.SECONDS), "Fluxo deve completar");
+        assertEquals(6, coletor.respostas.size());
+        assertEquals(1, coletor.respostas.stream().filter(ViaCepResponse::isErro).count());
+        assertTrue(server.getMaxConcurrentRequests() <= 2,
+                "No máximo 2 requisições simultâneas, houve " + server.getMaxConcurrentRequests());
+    }
+
+    @Test
+    @DisplayName("Sem demanda do assinante nenhuma consulta é iniciada")
+    void testBackpressure() throws Exception {
+        CepLookupProcessor processor = new CepLookupProcessor(viaCepService, 4);
+        ColetorDeRespostas coletor = new ColetorDeRespostas(1);
+        processor.subscribe(coletor);
+
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(processor);
+        publisher.submit("01310100");
+        publisher.submit("22071900");
+        publisher.submit("30112000");
+
+        assertTrue(coletor.primeira.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(1, coletor.respostas.size(), "Apenas a demanda solicitada deve ser atendida");
+        assertEquals(1, server.getRequestCount());
+
+        coletor.subscription.request(2);
+        publisher.close();
+        assertTrue(coletor.concluido.await(5, TimeUnit.SECONDS));
+        assertEquals(3, coletor.respostas.size());
+    }
+
+    @Test
+    @DisplayName("Cancelamento interrompe as chamadas em andamento")
+    void testCancelamento() throws Exception {
+        try (UnresponsiveServer semResposta = new UnresponsiveServer()) {
+            viaCepService.setBaseUrl(semResposta.baseUrl());
+            CepLookupProcessor processor = new CepLookupProcessor(viaCepService, 2);
+            ColetorDeRespostas coletor = new ColetorDeRespostas(Long.MAX_VALUE);
+            processor.subscribe(coletor);
+
+            SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+            publisher.subscribe(processor);
+            publisher.submit("01310100");
+            publisher.submit("22071900");
+            aguardar(() -> semResposta.getRequestCount() == 2, Duration.ofSeconds(5));
+
+            coletor.subscription.cancel();
+
+            // the server never answers, so its connections only close this early if the calls were cancelled
+            aguardar(() -> semResposta.getAbandonedCount() == 2, Duration.ofSeconds(1));
+            aguardar(() -> processor.getInFlightCount() == 0, Duration.ofSeconds(1));
+
+            publisher.submit("30112000");
+            Thread.sleep(100);
+            publisher.close();
+
+            assertTrue(coletor.respostas.isEmpty());
+            assertEquals(2, semResposta.getRequestCount(), "Nenhuma consulta deve ser iniciada após o cancelamento");
+        }
+    }
+
+    @Test
+    @DisplayName("Falha na consulta é propagada como onError")
+    void testErroPropagado() throws Exception {
+        CepLookupProcessor processor = new CepLookupProcessor(viaCepService, 2);
+        ColetorDeRespostas coletor = new ColetorDeRespostas(Long.MAX_VALUE);
+        processor.subscribe(coletor);
+
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            publisher.submit("1234");
+        }
+
+        assertTrue(coletor.concluido.await(5, TimeUnit.SECONDS));
+        assertTrue(coletor.erro instanceof IOException);
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao, Duration prazo) throws InterruptedException {
+        long limite = System.nanoTime() + prazo.toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class ColetorDeRespostas implements Flow.Subscriber<ViaCepResponse> {
+        final List<ViaCepResponse> respostas = new CopyOnWriteArrayList<>();
+        final CountDownLatch primeira = new CountDownLatch(1);
+        final CountDownLatch concluido = new CountDownLatch(1);
+        final long demandaInicial;
+        volatile Flow.Subscription subscription;
+        volatile Throwable erro;
+
+        ColetorDeRespostas(long demandaInicial) {
+            this.demandaInicial = demandaInicial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(demandaInicial);
+        }
+
+        @Override
+        public void onNext(ViaCepResponse item) {
+            respostas.add(item);
+            primeira.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            erro = throwable;
+            concluido.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            concluido.countDown();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.test;
+
+import org.example.cache.CepCache;
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubViaCepServer;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RefreshAheadTest {
+
+    private static final int PAULISTA = CepCache.encode("01310100");
+
+    private ViaCepService viaCepService;
+
+    @BeforeEach
+    void setUp() {
+        viaCepService = new ViaCepService(new CepCache(Duration.ofMillis(500), 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        viaCepService.close();
+    }
+
+    @Test
+    @DisplayName("Acesso perto da expiração renova a entrada em segundo plano")
+    void testRenovacaoAntecipada() throws Exception {
+        viaCepService.setRefreshAhead(Duration.ofMillis(400), 100);
+        viaCepService.consultarCep("01310100");
+        long expiraEmOriginal = viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos();
+
+        Thread.sleep(150);
+        ViaCepResponse response = viaCepService.consultarCep("01310100");
+
+        assertFalse(response.isErro(), "Valor em cache deve continuar sendo servido");
+        assertTrue(aguardarRenovacao(expiraEmOriginal), "Entrada deve ser renovada antes de expirar");
+    }
+
+    @Test
+    @DisplayName("Sem refresh-ahead a entrada não é renovada")
+    void testSemRenovacaoAntecipada() throws Exception {
+        viaCepService.consultarCep("01310100");
+        long expiraEmOriginal = viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos();
+
+        Thread.sleep(150);
+        viaCepService.consultarCep("01310100");
+
+        assertFalse(viaCepService.isRefreshing("01310100"));
+        assertEquals(expiraEmOriginal, viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos());
+    }
+
+    @Test
+    @DisplayName("Acesso fora da janela não dispara renovação")
+    void testForaDaJanela() throws Exception {
+        viaCepService.setRefreshAhead(Duration.ofMillis(100), 100);
+        viaCepService.consultarCep("01310100");
+        long expiraEmOriginal = viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos();
+
+        viaCepService.consultarCep("01310100");
+
+        assertEquals(expiraEmOriginal, viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos());
+    }
+
+    @Test
+    @DisplayName("Acessos durante uma renovação em andamento geram uma única busca no upstream")
+    void testRenovacoesAgrupadas() throws Exception {
+        try (StubViaCepServer server = new StubViaCepServer()) {
+            ViaCepService service = servicoComStub(server, Duration.ofSeconds(5));
+            try {
+                service.consultarCep("01310100");
+                server.setResponseDelay(Duration.ofMillis(300));
+                // a limiter this generous never skips, so only coalescing keeps the count down
+                service.setRefreshAhead(Duration.ofSeconds(5), 1_000_000);
+
+                for (int i = 0; i < 10; i++) {
+                    assertFalse(service.consultarCep("01310100").isErro());
+                    Thread.sleep(20);
+                }
+                aguardar(() -> !service.isRefreshing("01310100"));
+
+                assertEquals(2, server.getRequestCount(), "Carga inicial e uma única renovação");
+                assertEquals(1, server.getNotModifiedCount());
+            } finally {
+                service.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Renovação sem permissão do limitador é ignorada e refeita em acesso posterior")
+    void testRenovacaoLimitada() throws Exception {
+        try (StubViaCepServer server = new StubViaCepServer()) {
+            ViaCepService service = servicoComStub(server, Duration.ofSeconds(10));
+            try {
+                service.consultarCep("01310100");
+                service.consultarCep("22071900");
+                service.setRefreshAhead(Duration.ofSeconds(10), 1);
+
+                service.consultarCep("01310100");
+                service.consultarCep("22071900");
+                assertFalse(service.isRefreshing("22071900"), "Segunda chave dentro do intervalo deve ser ignorada");
+                aguardar(() -> !service.isRefreshing("01310100"));
+                assertEquals(3, server.getRequestCount());
+
+                Thread.sleep(1100);
+                service.consultarCep("22071900");
+                aguardar(() -> !service.isRefreshing("22071900"));
+                assertEquals(4, server.getRequestCount(), "Chave ignorada deve ser renovada no acesso seguinte");
+            } finally {
+                service.close();
+            }
+        }
+    }
+
+    private static ViaCepService servicoComStub(StubViaCepServer server, Duration ttl) {
+        ViaCepService service = new ViaCepService(new CepCache(ttl, 100));
+        service.setUseMock(false);
+        service.setBaseUrl(server.baseUrl());
+        return service;
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(10);
+        }
+    }
+
+    private boolean aguardarRenovacao(long expiraEmOriginal) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (System.nanoTime() < limite) {
+            if (viaCepService.getCache().getEntry(PAULISTA).getExpiresAtNanos() != expiraEmOriginal) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.test;
+
+import org.example.model.ViaCepResponse;
+import org.example.service.ViaCepService;
+import org.example.test.support.StubBackend;
+import org.example.test.support.StubViaCepServer;
+import org.example.test.support.ViaCepServiceExtension;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ViaCepServiceExtension.class)
+public class StubBackendTest {
+
+    private static ViaCepService viaCepService;
+
+    @BeforeAll
+    static void setUp(@StubBackend ViaCepService sharedService) {
+        viaCepService = sharedService;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "01310100, Avenida Paulista, SP",
+        "22071-900, Avenida Atlântica, RJ",
+        "30112000, Rua da Bahia, MG"
+    })
+    @DisplayName("Consulta de CEP via HTTP contra o backend local")
+    void testConsultaCepHttp(String cep, String logradouro, String uf) throws IOException {
+        ViaCepResponse response = viaCepService.consultarCep(cep);
+
+        assertFalse(response.isErro());
+        assertEquals(logradouro, response.getLogradouro());
+        assertEquals(uf, response.getUf());
+    }
+
+    @Test
+    @DisplayName("CEP bem formado e inexistente retorna erro")
+    void testCepInexistente() throws IOException {
+        assertTrue(viaCepService.consultarCep("99999999").isErro());
+    }
+
+    @Test
+    @DisplayName("CEP mal formado retorna HTTP 400")
+    void testCepMalFormado() {
+        assertThrows(IOException.class, () -> viaCepService.consultarCep("1234"));
+    }
+
+    @Test
+    @DisplayName("Cidade e logradouro com acento e espaço são codificados no caminho")
+    void testConsultaEnderecoHttp() throws IOException {
+        ViaCepResponse[] responses = viaCepService.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+
+        assertEquals(1, responses.length);
+        assertEquals("01310-100", responses[0].getCep());
+    }
+
+    @Test
+    @DisplayName("Caminho enviado usa percent-encoding e acompanha a troca de URL base")
+    void testCaminhoCodificado() throws IOException {
+        try (StubViaCepServer primeiro = new StubViaCepServer();
+             StubViaCepServer segundo = new StubViaCepServer()) {
+            ViaCepService service = new ViaCepService();
+            try {
+                service.setUseMock(false);
+                service.setBaseUrl(primeiro.baseUrl());
+                service.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+
+                service.setBaseUrl(segundo.baseUrl());
+                service.consultarEndereco("SP", "São Paulo", "Avenida Paulista");
+            } finally {
+                service.close();
+            }
+
+            String esperado = "/ws/SP/S%C3%A3o%20Paulo/Avenida%20Paulista/json/";
+            assertEquals(List.of(esperado), primeiro.getRawPaths());
+            assertEquals(List.of(esperado), segundo.getRawPaths());
+        }
+    }
+
+    @Test
+    @DisplayName("Endereço inexistente retorna array vazio")
+    void testEnderecoInexistente() throws IOException {
+        assertEquals(0, viaCepService.consultarEndereco("RJ", "Rio de Janeiro", "Rua Inexistente").length);
+    }
+}
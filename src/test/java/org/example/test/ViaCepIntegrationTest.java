@@ -2,7 +2,9 @@ package org.example.test;
 
 import org.example.model.ViaCepResponse;
 import org.example.service.ViaCepService;
+import org.example.test.support.ViaCepServiceExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -10,25 +12,19 @@ import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(ViaCepServiceExtension.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class ViaCepIntegrationTest {
 
     private static ViaCepService viaCepService;
 
     @BeforeAll
-    static void setUp() {
-        viaCepService = new ViaCepService();
+    static void setUp(ViaCepService sharedService) {
+        viaCepService = sharedService;
         viaCepService.setUseMock(true);
         System.out.println("Testes executando com dados mockados devido à indisponibilidade da API ViaCEP");
     }
 
-    @AfterAll
-    static void tearDown() {
-        if (viaCepService != null) {
-            viaCepService.close();
-        }
-    }
-
     @ParameterizedTest
     @ValueSource(strings = {"01310100", "22071900", "30112000"})
     @Order(1)
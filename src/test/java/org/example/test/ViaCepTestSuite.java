@@ -7,7 +7,8 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
     CepInvalidInputTest.class,
     AddressLookupTest.class,
-    ViaCepIntegrationTest.class
+    ViaCepIntegrationTest.class,
+    StubBackendTest.class
 })
 public class ViaCepTestSuite {
 }
@@ -0,0 +1,12 @@
+package org.example.test.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a ViaCepService parameter that must talk HTTP to the shared StubViaCepServer instead of using the mock.
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StubBackend {
+}
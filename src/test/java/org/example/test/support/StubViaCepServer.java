@@ -0,0 +1,180 @@
+package org.example.test.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.model.ViaCepResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StubViaCepServer implements AutoCloseable {
+
+    private static final List<ViaCepResponse> ENDERECOS = Arrays.asList(
+        endereco("01310-100", "Avenida Paulista", "Bela Vista", "São Paulo", "SP", "3550308", "11"),
+        endereco("22071-900", "Avenida Atlântica", "Copacabana", "Rio de Janeiro", "RJ", "3304557", "21"),
+        endereco("30112-000", "Rua da Bahia", "Centro", "Belo Horizonte", "MG", "3106200", "31"),
+        endereco("01000-000", "Praça da Sé", "Sé", "São Paulo", "SP", "3550308", "11"),
+        endereco("90160-093", "Avenida Ipiranga", "Santana", "Porto Alegre", "RS", "4314902", "51")
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, byte[]> cepBodies = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final List<String> rawPaths = new CopyOnWriteArrayList<>();
+    private volatile String cacheControl = "no-cache";
+    private volatile long responseDelayMillis;
+
+    public StubViaCepServer() throws IOException {
+        for (ViaCepResponse endereco : ENDERECOS) {
+            cepBodies.put(endereco.getCep().replace("-", ""), objectMapper.writeValueAsBytes(endereco));
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ws/", this::handle);
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/ws/";
+    }
+
+    public int getRequestCount() { return requestCount.get(); }
+    public int getNotModifiedCount() { return notModifiedCount.get(); }
+
+    public int getMaxConcurrentRequests() { return maxConcurrentRequests.get(); }
+    public List<String> getRawPaths() { return rawPaths; }
+
+    public void setCacheControl(String cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    public void setResponseDelay(Duration delay) {
+        this.responseDelayMillis = delay.toMillis();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        rawPaths.add(exchange.getRequestURI().getRawPath());
+        maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+        try {
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            List<String> segments = segments(exchange.getRequestURI());
+            if (segments.size() == 2 && "json".equals(segments.get(1))) {
+                handleCep(exchange, segments.get(0));
+            } else if (segments.size() == 4 && "json".equals(segments.get(3))) {
+                handleEndereco(exchange, segments.get(0), segments.get(1), segments.get(2));
+            } else {
+                send(exchange, 404, new byte[0]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrentRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // Mirrors the real API: malformed CEPs get 400, well-formed but unknown ones get {"erro": true}.
+    private void handleCep(HttpExchange exchange, String cep) throws IOException {
+        if (!cep.matches("\\d{8}")) {
+            send(exchange, 400, new byte[0]);
+            return;
+        }
+        byte[] body = cepBodies.get(cep);
+        if (body == null) {
+            send(exchange, 200, "{\"erro\": true}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedCount.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body);
+    }
+
+    private void handleEndereco(HttpExchange exchange, String uf, String cidade, String logradouro) throws IOException {
+        if (!uf.matches("[A-Z]{2}") || cidade.length() < 3 || logradouro.length() < 3) {
+            send(exchange, 400, new byte[0]);
+            return;
+        }
+        List<ViaCepResponse> encontrados = new ArrayList<>();
+        for (ViaCepResponse endereco : ENDERECOS) {
+            if (endereco.getUf().equals(uf)
+                    && normalize(endereco.getLocalidade()).equals(normalize(cidade))
+                    && normalize(endereco.getLogradouro()).contains(normalize(logradouro))) {
+                encontrados.add(endereco);
+            }
+        }
+        send(exchange, 200, objectMapper.writeValueAsBytes(encontrados));
+    }
+
+    private static List<String> segments(URI uri) {
+        List<String> segments = new ArrayList<>(Arrays.asList(uri.getPath().split("/")));
+        segments.removeIf(String::isEmpty);
+        segments.remove(0);
+        return segments;
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static ViaCepResponse endereco(String cep, String logradouro, String bairro, String localidade,
+                                           String uf, String ibge, String ddd) {
+        ViaCepResponse response = new ViaCepResponse();
+        response.setCep(cep);
+        response.setLogradouro(logradouro);
+        response.setBairro(bairro);
+        response.setLocalidade(localidade);
+        response.setUf(uf);
+        response.setIbge(ibge);
+        response.setDdd(ddd);
+        return response;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
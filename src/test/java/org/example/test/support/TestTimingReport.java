@@ -0,0 +1,68 @@
+package org.example.test.support;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Prints the wall-clock time of each test class once the whole plan has run.
+public class TestTimingReport implements TestExecutionListener {
+
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> testCounts = new ConcurrentHashMap<>();
+    private long planStartedAt;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        testIdentifier.getSource()
+                .filter(ClassSource.class::isInstance)
+                .ifPresent(source -> startedAt.put(testIdentifier.getUniqueId(), System.nanoTime()));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        testIdentifier.getSource().ifPresent(source -> {
+            if (source instanceof ClassSource) {
+                Long start = startedAt.remove(testIdentifier.getUniqueId());
+                if (start != null) {
+                    durations.merge(((ClassSource) source).getClassName(), System.nanoTime() - start, Long::sum);
+                }
+            } else if (source instanceof MethodSource && testIdentifier.isTest()) {
+                testCounts.computeIfAbsent(((MethodSource) source).getClassName(), name -> new AtomicInteger())
+                        .incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(durations.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        StringBuilder report = new StringBuilder("\nTempo por classe de teste:\n");
+        for (Map.Entry<String, Long> entry : entries) {
+            AtomicInteger count = testCounts.get(entry.getKey());
+            report.append(String.format("  %-55s %6d ms  (%d testes)%n",
+                    entry.getKey(), entry.getValue() / 1_000_000, count == null ? 0 : count.get()));
+        }
+        report.append(String.format("  %-55s %6d ms%n", "Total (relógio)", (System.nanoTime() - planStartedAt) / 1_000_000));
+        System.out.print(report);
+    }
+}
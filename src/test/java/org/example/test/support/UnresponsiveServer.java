@@ -0,0 +1,87 @@
+package org.example.test.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reads each HTTP request and never answers it. A connection only ends early when the client gives up on
+// it, so the abandoned count shows from the server side whether in-flight calls were really cancelled.
+public class UnresponsiveServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger abandonedCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    public UnresponsiveServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "unresponsive-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::accept);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/ws/";
+    }
+
+    public int getRequestCount() { return requestCount.get(); }
+    public int getAbandonedCount() { return abandonedCount.get(); }
+
+    private void accept() {
+        try {
+            while (!closed) {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                executor.execute(() -> hold(socket));
+            }
+        } catch (IOException e) {
+            // server closed
+        }
+    }
+
+    private void hold(Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            // a GET has no body, so the request ends at the blank line after the headers
+            int tail = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                tail = (tail << 8) | b;
+                if (tail == 0x0D0A0D0A) {
+                    requestCount.incrementAndGet();
+                    break;
+                }
+            }
+            while (in.read() != -1) {
+                // keep the connection open until the client closes it
+            }
+            abandonedCount.incrementAndGet();
+        } catch (IOException e) {
+            if (!closed) {
+                abandonedCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        executor.shutdownNow();
+    }
+}
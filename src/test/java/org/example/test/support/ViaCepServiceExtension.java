@@ -0,0 +1,78 @@
+package org.example.test.support;
+
+import org.example.service.ViaCepService;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Shares one mock ViaCepService, one stub-backed ViaCepService and one StubViaCepServer across every
+// test class of the run, so parallel classes don't each spin up their own OkHttp client.
+public class ViaCepServiceExtension implements ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ViaCepServiceExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == ViaCepService.class || type == StubViaCepServer.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        ExtensionContext.Store store = extensionContext.getRoot().getStore(NAMESPACE);
+        Class<?> type = parameterContext.getParameter().getType();
+        if (type == StubViaCepServer.class) {
+            return stubServer(store);
+        }
+        if (parameterContext.isAnnotated(StubBackend.class)) {
+            return store.getOrComputeIfAbsent("stubService", key -> {
+                ViaCepService service = new ViaCepService();
+                service.setUseMock(false);
+                service.setBaseUrl(stubServer(store).baseUrl());
+                return new SharedService(service);
+            }, SharedService.class).service;
+        }
+        return store.getOrComputeIfAbsent("mockService", key -> new SharedService(new ViaCepService()),
+                SharedService.class).service;
+    }
+
+    private static StubViaCepServer stubServer(ExtensionContext.Store store) {
+        return store.getOrComputeIfAbsent("stubServer", key -> {
+            try {
+                return new SharedServer(new StubViaCepServer());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, SharedServer.class).server;
+    }
+
+    private static class SharedService implements ExtensionContext.Store.CloseableResource {
+        final ViaCepService service;
+
+        SharedService(ViaCepService service) {
+            this.service = service;
+        }
+
+        @Override
+        public void close() {
+            service.close();
+        }
+    }
+
+    private static class SharedServer implements ExtensionContext.Store.CloseableResource {
+        final StubViaCepServer server;
+
+        SharedServer(StubViaCepServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public void close() {
+            server.close();
+        }
+    }
+}